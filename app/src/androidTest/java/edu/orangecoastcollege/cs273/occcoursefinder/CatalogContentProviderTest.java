@@ -0,0 +1,240 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import android.content.ContentProviderOperation;
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.ContentObserver;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import edu.orangecoastcollege.cs273.occcoursefinder.CatalogContract.Courses;
+import edu.orangecoastcollege.cs273.occcoursefinder.CatalogContract.Instructors;
+import edu.orangecoastcollege.cs273.occcoursefinder.CatalogContract.Offerings;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented test of CatalogContentProvider, which will execute on an Android device.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CatalogContentProviderTest {
+
+    private Context mContext;
+    private ContentResolver mResolver;
+    private DBHelper mDb;
+
+    @Before
+    public void setUp() throws Exception {
+        mContext = InstrumentationRegistry.getTargetContext();
+        DBHelper.deleteCatalog(mContext);
+        mResolver = mContext.getContentResolver();
+        mDb = new DBHelper(mContext);
+        mDb.addCourse(new Course(1, "CS", "A170", "Java Programming 1"));
+        mDb.addCourse(new Course(2, "MATH", "A180", "Calculus 1"));
+        mDb.addInstructor(new Instructor(1, "Paulding", "Michael", "mpaulding@occ.cccd.edu"));
+        mDb.addOffering(30001, 201810, 1, 1, "MW", 480, 555);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mDb.close();
+        DBHelper.deleteCatalog(mContext);
+    }
+
+    @Test
+    public void query_returnsOnlyProjectedColumns() throws Exception {
+        Cursor cursor = mResolver.query(Courses.CONTENT_URI, new String[]{Courses.TITLE},
+                Courses.ALPHA + " = ?", new String[]{"CS"}, null);
+        assertNotNull(cursor);
+        try {
+            assertEquals(1, cursor.getColumnCount());
+            assertEquals(1, cursor.getCount());
+            assertTrue(cursor.moveToFirst());
+            assertEquals("Java Programming 1", cursor.getString(0));
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void query_rejectsUnknownColumns() throws Exception {
+        mResolver.query(Courses.CONTENT_URI, new String[]{"sqlite_version()"}, null, null, null);
+    }
+
+    @Test
+    public void query_byIdAndByCrn() throws Exception {
+        Cursor cursor = mResolver.query(Uri.withAppendedPath(Courses.CONTENT_URI, "2"),
+                new String[]{Courses.ALPHA}, null, null, null);
+        try {
+            assertTrue(cursor.moveToFirst());
+            assertEquals("MATH", cursor.getString(0));
+            assertEquals(1, cursor.getCount());
+        } finally {
+            cursor.close();
+        }
+
+        cursor = mResolver.query(Offerings.buildCrnUri(30001),
+                new String[]{Offerings._ID, Offerings.MEETING_DAYS}, null, null, null);
+        try {
+            assertTrue(cursor.moveToFirst());
+            assertEquals("MW", cursor.getString(1));
+            assertEquals(1, cursor.getCount());
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Test
+    public void bulkInsert_insertsEveryRow() throws Exception {
+        ContentValues[] rows = mathOfferings(50, 40000);
+
+        assertEquals(50, mResolver.bulkInsert(Offerings.CONTENT_URI, rows));
+        assertEquals(51, mDb.getAllOfferings().size());
+        assertEquals(51, mDb.getCatalogStats().getOfferingCount());
+        assertEquals(50, mDb.searchOfferings("MATH", -1, -1).size());
+    }
+
+    @Test
+    public void applyBatch_isAllOrNothing() throws Exception {
+        ArrayList<ContentProviderOperation> operations = new ArrayList<>();
+        operations.add(ContentProviderOperation.newInsert(Courses.CONTENT_URI)
+                .withValue(Courses._ID, 3).withValue(Courses.ALPHA, "CS")
+                .withValue(Courses.NUMBER, "A250").withValue(Courses.TITLE, "Data Structures")
+                .build());
+        operations.add(ContentProviderOperation.newUpdate(Instructors.CONTENT_URI)
+                .withValue(Instructors.EMAIL, "mike@occ.cccd.edu").build());
+        mResolver.applyBatch(CatalogContract.AUTHORITY, operations);
+
+        assertEquals("Data Structures", mDb.getCourse(3).getTitle());
+        assertEquals("mike@occ.cccd.edu", mDb.getInstructor(1).getEmail());
+
+        operations.clear();
+        operations.add(ContentProviderOperation.newDelete(Courses.CONTENT_URI)
+                .withSelection(Courses._ID + " = ?", new String[]{"3"}).build());
+        operations.add(ContentProviderOperation.newUpdate(Courses.CONTENT_URI)
+                .withValue("no_such_column", 1).build());
+        try {
+            mResolver.applyBatch(CatalogContract.AUTHORITY, operations);
+            fail("The second operation should have failed");
+        } catch (Exception e) {
+            // expected: the whole batch is rolled back
+        }
+        assertNotNull(mDb.getCourse(3));
+    }
+
+    @Test
+    public void searchesDuringABatch_areNotCachedAsCurrent() throws Exception {
+        // Each batch runs on another thread while this one keeps searching, so searches land
+        // before, inside and after its transaction; none may outlive it in the cache.
+        final ContentValues[] rows = mathOfferings(2000, 40000);
+        searchWhile(new Runnable() {
+            @Override
+            public void run() {
+                mResolver.bulkInsert(Offerings.CONTENT_URI, rows);
+            }
+        });
+        assertEquals(2000, mDb.searchOfferings("MATH", -1, -1).size());
+
+        final ArrayList<ContentProviderOperation> operations = new ArrayList<>();
+        for (ContentValues row : mathOfferings(2000, 50000))
+            operations.add(ContentProviderOperation.newInsert(Offerings.CONTENT_URI)
+                    .withValues(row).build());
+        searchWhile(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    mResolver.applyBatch(CatalogContract.AUTHORITY, operations);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        assertEquals(4000, mDb.searchOfferings("MATH", -1, -1).size());
+        assertEquals(4000, mDb.getCatalogStats().getOfferingCountForCourse(2));
+    }
+
+    @Test
+    public void insert_notifiesObserversOfTheTable() throws Exception {
+        HandlerThread thread = new HandlerThread("observer");
+        thread.start();
+        final CountDownLatch changed = new CountDownLatch(1);
+        ContentObserver observer = new ContentObserver(new Handler(thread.getLooper())) {
+            @Override
+            public void onChange(boolean selfChange) {
+                changed.countDown();
+            }
+        };
+        mResolver.registerContentObserver(Instructors.CONTENT_URI, true, observer);
+        try {
+            ContentValues values = new ContentValues();
+            values.put(Instructors._ID, 2);
+            values.put(Instructors.FIRST_NAME, "Ada");
+            values.put(Instructors.LAST_NAME, "Lovelace");
+            values.put(Instructors.EMAIL, "alovelace@occ.cccd.edu");
+            Uri uri = mResolver.insert(Instructors.CONTENT_URI, values);
+
+            assertEquals(Uri.withAppendedPath(Instructors.CONTENT_URI, "2"), uri);
+            assertTrue(changed.await(5, TimeUnit.SECONDS));
+        } finally {
+            mResolver.unregisterContentObserver(observer);
+            thread.quit();
+        }
+    }
+
+    /**
+     * searchWhile runs the writes on another thread and searches through mDb, which caches
+     * its results, until they are done.
+     */
+    private void searchWhile(final Runnable writes) throws Exception {
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    writes.run();
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            }
+        });
+        writer.start();
+        int searches = 0;
+        while (writer.isAlive()) {
+            mDb.searchOfferings("MATH", -1, -1);
+            searches++;
+        }
+        writer.join();
+        assertNull(failure.get());
+        assertTrue(searches > 0);
+    }
+
+    private static ContentValues[] mathOfferings(int count, int firstCrn) {
+        ContentValues[] rows = new ContentValues[count];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new ContentValues();
+            rows[i].put(Offerings.CRN, firstCrn + i);
+            rows[i].put(Offerings.SEMESTER_CODE, 201810);
+            rows[i].put(Offerings.COURSE_ID, 2);
+            rows[i].put(Offerings.INSTRUCTOR_ID, 1);
+            rows[i].put(Offerings.MEETING_DAYS, "TR");
+            rows[i].put(Offerings.START_TIME, 600);
+            rows[i].put(Offerings.END_TIME, 675);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,205 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+/**
+ * Load test of DBHelper against a generated catalog, which will execute on an Android device.
+ *
+ * Each phase is held to two limits:
+ *
+ * - an absolute budget, read from the checked-in catalog-load-baseline.properties asset of
+ *   the test APK (or an instrumentation argument of the same name), which catches a build
+ *   that got slower or heavier than the last one, linear or not;
+ * - a scaling check: the phase is first run on a catalog a tenth of the size, and the full
+ *   catalog may take at most SLACK times that scaled up linearly, which catches a phase that
+ *   turns quadratic whatever the speed of the device.
+ *
+ * The catalog size can be raised from the command line, e.g.
+ *
+ * ./gradlew connectedAndroidTest -Pandroid.testInstrumentationRunnerArguments.offerings=100000
+ *
+ * Arguments: seed, courses, instructors, offerings and semesters, plus the budgets of the
+ * baseline file: importBudgetMs, getAllOfferingsBudgetMs, searchOfferingsBudgetMs and
+ * heapBudgetBytesPerOffering.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CatalogLoadTest {
+
+    private static final String TAG = "CatalogLoadTest";
+    private static final String BASELINE_FILE = "catalog-load-baseline.properties";
+    private static final String[] PHASES = {"import", "getAllOfferings", "searchOfferings"};
+    private static final int SCALE = 10;
+    private static final int SLACK = 3;
+    // Phases too short to time reliably get this budget at least
+    private static final long MIN_BUDGET_MS = 50;
+
+    private Context mContext;
+    private File mDirectory;
+    private Bundle mArguments;
+    private Properties mBaseline;
+    private DBHelper mDb;
+
+    @Before
+    public void setUp() throws Exception {
+        mContext = InstrumentationRegistry.getTargetContext();
+        mArguments = InstrumentationRegistry.getArguments();
+        mBaseline = new Properties();
+        InputStream in = InstrumentationRegistry.getContext().getAssets().open(BASELINE_FILE);
+        try {
+            mBaseline.load(in);
+        } finally {
+            in.close();
+        }
+        mDirectory = new File(mContext.getCacheDir(), "load-test-catalog");
+        DBHelper.deleteCatalog(mContext);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (mDb != null)
+            mDb.close();
+        DBHelper.deleteCatalog(mContext);
+        deleteDirectory();
+    }
+
+    @Test
+    public void importListAndSearch_scaleLinearly() throws Exception {
+        int offerings = (int) argument("offerings", 5000);
+
+        long[] small = run(offerings / SCALE);
+        long[] full = run(offerings);
+
+        for (int i = 0; i < PHASES.length; i++) {
+            long budget = budget(PHASES[i] + "BudgetMs", offerings);
+            long scaled = Math.max(MIN_BUDGET_MS, small[i] * SCALE * SLACK);
+            Log.i(TAG, PHASES[i] + " took " + full[i] + " ms (budget " + budget + " ms, "
+                    + (offerings / SCALE) + " offerings took " + small[i] + " ms)");
+            assertTrue(PHASES[i] + " took " + full[i] + " ms, budget is " + budget + " ms",
+                    full[i] <= budget);
+            assertTrue(PHASES[i] + " took " + full[i] + " ms, " + SCALE + " times "
+                    + small[i] + " ms scaled with slack is " + scaled + " ms", full[i] <= scaled);
+        }
+    }
+
+    /**
+     * Imports, lists and searches a generated catalog of the given size in a new database.
+     * @return the milliseconds taken by the offerings import, getAllOfferings and
+     * searchOfferings
+     */
+    private long[] run(int offerings) throws Exception {
+        if (mDb != null)
+            mDb.close();
+        DBHelper.deleteCatalog(mContext);
+        deleteDirectory();
+        new CatalogGenerator(
+                argument("seed", 273),
+                (int) argument("courses", 400),
+                (int) argument("instructors", 150),
+                offerings,
+                (int) argument("semesters", 9)).writeTo(mDirectory);
+        mDb = new DBHelper(mContext);
+        long[] millis = new long[3];
+
+        assertTrue(mDb.importCoursesFromCSV(open(CatalogGenerator.COURSES_FILE)));
+        assertTrue(mDb.importInstructorsFromCSV(open(CatalogGenerator.INSTRUCTORS_FILE)));
+        // Only the offerings grow with the catalog, so only their import is timed.
+        long start = SystemClock.elapsedRealtime();
+        assertTrue(mDb.importOfferingsFromCSV(open(CatalogGenerator.OFFERINGS_FILE)));
+        millis[0] = SystemClock.elapsedRealtime() - start;
+        assertEquals(offerings, mDb.getCatalogStats().getOfferingCount());
+
+        long heapBefore = usedHeap();
+        start = SystemClock.elapsedRealtime();
+        List<Offering> all = mDb.getAllOfferings();
+        millis[1] = SystemClock.elapsedRealtime() - start;
+        long heapBytes = usedHeap() - heapBefore;
+        assertEquals(offerings, all.size());
+        long heapPerOffering = heapBytes / Math.max(1, offerings);
+        Log.i(TAG, "getAllOfferings of " + offerings + " retained ~" + heapPerOffering
+                + " bytes per offering");
+        assertTrue("heap per offering " + heapPerOffering,
+                heapPerOffering <= budget("heapBudgetBytesPerOffering", -1));
+
+        start = SystemClock.elapsedRealtime();
+        List<Offering> cs = mDb.searchOfferings("CS", 201731, -1);
+        millis[2] = SystemClock.elapsedRealtime() - start;
+        for (Offering offering : cs) {
+            assertEquals("CS", offering.getCourse().getAlpha());
+            assertEquals(201731, offering.getSemesterCode());
+        }
+
+        long hits = mDb.getSearchCache().getHitCount();
+        assertEquals(cs.size(), mDb.searchOfferings("cs", 201731, -1).size());
+        assertEquals(hits + 1, mDb.getSearchCache().getHitCount());
+        return millis;
+    }
+
+    private FileInputStream open(String name) throws Exception {
+        return new FileInputStream(new File(mDirectory, name));
+    }
+
+    private void deleteDirectory() {
+        File[] files = mDirectory.listFiles();
+        if (files != null)
+            for (File file : files)
+                file.delete();
+        mDirectory.delete();
+    }
+
+    private long argument(String name, long defaultValue) {
+        String value = mArguments.getString(name);
+        return (value == null) ? defaultValue : Long.parseLong(value);
+    }
+
+    /**
+     * budget returns a budget given as an instrumentation argument, or else the one of the
+     * baseline file scaled linearly from its catalog size to the given one.
+     * @param offerings the size of the catalog, or -1 for a budget that does not scale
+     */
+    private long budget(String name, int offerings) {
+        String value = mArguments.getString(name);
+        if (value != null)
+            return Long.parseLong(value);
+        value = mBaseline.getProperty(name);
+        assertNotNull(name + " is missing from " + BASELINE_FILE, value);
+        long budget = Long.parseLong(value.trim());
+        if (offerings < 0)
+            return budget;
+        long baselineOfferings = Long.parseLong(mBaseline.getProperty("offerings").trim());
+        return (budget * offerings + baselineOfferings - 1) / baselineOfferings;
+    }
+
+    /**
+     * Returns the heap in use once the garbage collector has settled: the lowest reading of
+     * several collections, so one that ran late or partially does not count.
+     */
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            runtime.gc();
+            runtime.runFinalization();
+            Thread.sleep(50);
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,111 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented test of how DBHelper keeps its CatalogStats up to date as the tables are
+ * written, through itself and through another DBHelper, which will execute on an Android
+ * device.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CatalogStatsMaintenanceTest {
+
+    private Context mContext;
+    private DBHelper mDb;
+    private DBHelper mOther;
+
+    @Before
+    public void setUp() throws Exception {
+        mContext = InstrumentationRegistry.getTargetContext();
+        DBHelper.deleteCatalog(mContext);
+        mDb = new DBHelper(mContext);
+        mOther = new DBHelper(mContext);
+        mDb.addCourse(new Course(1, "CS", "A170", "Java Programming 1"));
+        mDb.addCourse(new Course(2, "MATH", "A180", "Calculus 1"));
+        mDb.addInstructor(new Instructor(1, "Paulding", "Michael", "mpaulding@occ.cccd.edu"));
+        mDb.addInstructor(new Instructor(2, "Gilbert", "Stephen", "sgilbert@occ.cccd.edu"));
+        mDb.addOffering(30001, 201810, 1, 1);
+        mDb.addOffering(30002, 201810, 2, 2);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mDb.close();
+        mOther.close();
+        DBHelper.deleteCatalog(mContext);
+    }
+
+    @Test
+    public void ownWrites_areCountedIncrementally() throws Exception {
+        CatalogStats stats = mDb.getCatalogStats();
+        assertEquals(2, stats.getOfferingCount());
+
+        mDb.addOffering(30003, 201831, 1, 2);
+        Offering moved = mDb.getOffering(30002);
+        moved.setCourse(mDb.getCourse(1));
+        mDb.updateOffering(moved);
+        mDb.deleteOffering(mDb.getOffering(30001));
+        Course renamed = mDb.getCourse(1);
+        renamed.setAlpha("CSE");
+        mDb.updateCourse(renamed);
+
+        assertCounts(mDb.getCatalogStats(), freshStats());
+        assertEquals(2, mDb.getCatalogStats().getOfferingCountForAlpha("CSE"));
+        assertEquals(0, mDb.getCatalogStats().getOfferingCountForAlpha("MATH"));
+        assertEquals(1, mDb.getCatalogStats().getOfferingCountForSemester(201831));
+    }
+
+    @Test
+    public void writesThroughAnotherHelper_areSeen() throws Exception {
+        assertEquals(1, mDb.getCatalogStats().getOfferingCountForCourse(2));
+        assertEquals(1, mOther.getCatalogStats().getOfferingCountForCourse(2));
+
+        mOther.addOffering(30003, 201810, 2, 1);
+        assertEquals(2, mDb.getCatalogStats().getOfferingCountForCourse(2));
+        assertEquals(2, mDb.getCatalogStats().getOfferingCountForInstructor(1));
+
+        mOther.deleteAllOfferings();
+        assertEquals(0, mDb.getCatalogStats().getOfferingCount());
+
+        // The helper that wrote keeps its own stats current too.
+        mDb.addOffering(30004, 201910, 1, 1);
+        assertEquals(1, mOther.getCatalogStats().getOfferingCount());
+        assertCounts(mOther.getCatalogStats(), freshStats());
+        assertCounts(mDb.getCatalogStats(), freshStats());
+    }
+
+    /**
+     * Builds the stats from scratch with a DBHelper that has never written anything.
+     */
+    private CatalogStats freshStats() {
+        DBHelper fresh = new DBHelper(mContext);
+        CatalogStats stats = fresh.getCatalogStats();
+        fresh.close();
+        return stats;
+    }
+
+    private static void assertCounts(CatalogStats expected, CatalogStats actual) {
+        assertEquals(expected.getOfferingCount(), actual.getOfferingCount());
+        for (long id = 1; id <= 2; id++) {
+            assertEquals(expected.getOfferingCountForCourse(id),
+                    actual.getOfferingCountForCourse(id));
+            assertEquals(expected.getOfferingCountForInstructor(id),
+                    actual.getOfferingCountForInstructor(id));
+        }
+        for (String alpha : new String[]{"CS", "CSE", "MATH"})
+            assertEquals(expected.getOfferingCountForAlpha(alpha),
+                    actual.getOfferingCountForAlpha(alpha));
+        for (int semester : new int[]{201810, 201831, 201910})
+            assertEquals(expected.getOfferingCountForSemester(semester),
+                    actual.getOfferingCountForSemester(semester));
+    }
+}
@@ -0,0 +1,64 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.rule.ActivityTestRule;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented test that CourseSearchActivity loads the catalog off the main thread, which
+ * will execute on an Android device.  DBTrace throws on any catalog access from the main
+ * thread while it runs, which would crash the activity.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CourseSearchActivityTest {
+
+    @Rule
+    public ActivityTestRule<CourseSearchActivity> mRule =
+            new ActivityTestRule<>(CourseSearchActivity.class, false, false);
+
+    private Context mContext;
+    private DBTrace.MainThreadPolicy mPolicy;
+
+    @Before
+    public void setUp() throws Exception {
+        mPolicy = DBTrace.getMainThreadPolicy();
+        mContext = InstrumentationRegistry.getTargetContext();
+        DBHelper.deleteCatalog(mContext);
+        DBTrace.setMainThreadPolicy(DBTrace.MainThreadPolicy.THROW);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        DBTrace.setMainThreadPolicy(mPolicy);
+    }
+
+    @Test
+    public void firstStart_importsAndSnapshotsOffTheMainThread() throws Exception {
+        CourseSearchActivity activity = mRule.launchActivity(null);
+        assertTrue(activity.awaitCatalog(30, TimeUnit.SECONDS));
+        assertEquals(26, CatalogSnapshot.open(DBHelper.getSnapshotFile(mContext))
+                .getOfferingCount());
+    }
+
+    @Test
+    public void laterStart_readsSnapshotOffTheMainThread() throws Exception {
+        CourseSearchActivity activity = mRule.launchActivity(null);
+        assertTrue(activity.awaitCatalog(30, TimeUnit.SECONDS));
+        activity.finish();
+
+        activity = mRule.launchActivity(null);
+        assertTrue(activity.awaitCatalog(30, TimeUnit.SECONDS));
+        assertTrue(DBHelper.getSnapshotFile(mContext).exists());
+    }
+}
@@ -0,0 +1,82 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented test of DBTrace's main thread guard around DBHelper, which will execute on an
+ * Android device.  The test itself runs on the instrumentation thread, not the main thread.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MainThreadGuardTest {
+
+    private Context mContext;
+    private DBHelper mDb;
+    private DBTrace.MainThreadPolicy mPolicy;
+
+    @Before
+    public void setUp() throws Exception {
+        mPolicy = DBTrace.getMainThreadPolicy();
+        mContext = InstrumentationRegistry.getTargetContext();
+        DBHelper.deleteCatalog(mContext);
+        mDb = new DBHelper(mContext);
+        mDb.addCourse(new Course(1, "CS", "A170", "Java Programming 1"));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        DBTrace.setMainThreadPolicy(mPolicy);
+        mDb.close();
+        DBHelper.deleteCatalog(mContext);
+    }
+
+    @Test
+    public void throwPolicy_rejectsMainThreadAccess() throws Exception {
+        DBTrace.setMainThreadPolicy(DBTrace.MainThreadPolicy.THROW);
+        final AtomicReference<Throwable> thrown = new AtomicReference<>();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    mDb.getAllCourses();
+                } catch (IllegalStateException e) {
+                    thrown.set(e);
+                }
+            }
+        });
+
+        assertNotNull(thrown.get());
+        assertTrue(thrown.get().getMessage(),
+                thrown.get().getMessage().contains("DBHelper.getAllCourses"));
+    }
+
+    @Test
+    public void throwPolicy_allowsBackgroundAccess() throws Exception {
+        DBTrace.setMainThreadPolicy(DBTrace.MainThreadPolicy.THROW);
+        assertEquals(1, mDb.getAllCourses().size());
+        assertEquals("CS", mDb.getCourse(1).getAlpha());
+    }
+
+    @Test
+    public void logPolicy_onlyReports() throws Exception {
+        DBTrace.setMainThreadPolicy(DBTrace.MainThreadPolicy.LOG);
+        final AtomicReference<Integer> count = new AtomicReference<>();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                count.set(mDb.getAllCourses().size());
+            }
+        });
+        assertEquals(Integer.valueOf(1), count.get());
+    }
+}
@@ -0,0 +1,32 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.runner.RunWith;
+
+/**
+ * Runs the CatalogStore conformance suite against DBHelper, which will execute on an
+ * Android device.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SQLiteCatalogStoreTest extends CatalogStoreConformanceTest {
+
+    private DBHelper mDb;
+
+    @Override
+    protected CatalogStore createStore() throws Exception {
+        Context context = InstrumentationRegistry.getTargetContext();
+        DBHelper.deleteCatalog(context);
+        mDb = new DBHelper(context);
+        return mDb;
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mDb.close();
+        DBHelper.deleteCatalog(InstrumentationRegistry.getTargetContext());
+    }
+}
@@ -0,0 +1,146 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented test of DBHelper's semester archive, which will execute on an Android device.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SemesterArchiveTest {
+
+    private Context mContext;
+    private DBHelper mDb;
+
+    @Before
+    public void setUp() throws Exception {
+        mContext = InstrumentationRegistry.getTargetContext();
+        DBHelper.deleteCatalog(mContext);
+        mDb = new DBHelper(mContext);
+        mDb.addCourse(new Course(1, "CS", "A170", "Java Programming 1"));
+        mDb.addInstructor(new Instructor(1, "Paulding", "Michael", "mpaulding@occ.cccd.edu"));
+        mDb.addOffering(30001, 201631, 1, 1, "MW", 480, 555);
+        mDb.addOffering(30002, 201710, 1, 1, "TR", 480, 555);
+        mDb.addOffering(30003, 201731, 1, 1, "MW", 600, 675);
+        mDb.addOffering(30004, 201810, 1, 1);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mDb.close();
+        DBHelper.deleteCatalog(mContext);
+    }
+
+    @Test
+    public void archive_movesOldSemestersOut() throws Exception {
+        assertEquals(4, mDb.getCatalogStats().getOfferingCount());
+
+        assertEquals(2, mDb.archiveOfferingsBefore(201731));
+
+        List<Offering> hot = mDb.searchOfferings(null, -1, -1);
+        assertEquals(2, hot.size());
+        for (Offering offering : hot)
+            assertTrue(offering.getSemesterCode() >= 201731);
+        assertEquals(2, mDb.getAllOfferings().size());
+        assertEquals(2, mDb.getCatalogStats().getOfferingCount());
+        assertTrue(mContext.getDatabasePath(DBHelper.ARCHIVE_DATABASE_NAME).exists());
+    }
+
+    @Test
+    public void search_spansBothDatabasesWhenAsked() throws Exception {
+        mDb.archiveOfferingsBefore(201731);
+
+        assertEquals(4, mDb.searchOfferings(null, -1, -1, true).size());
+        Offering old = mDb.searchOfferings("cs", 201631, -1, true).get(0);
+        assertEquals(30001, old.getCRN());
+        assertEquals("Java Programming 1", old.getCourse().getTitle());
+        assertEquals("MW", old.getMeetingDays());
+        assertTrue(mDb.searchOfferings("CS", 201631, -1).isEmpty());
+
+        // Archiving again appends to the same archive.
+        assertEquals(1, mDb.archiveOfferingsBefore(201810));
+        assertEquals(1, mDb.searchOfferings(null, -1, -1).size());
+        assertEquals(4, mDb.searchOfferings(null, -1, -1, true).size());
+    }
+
+    @Test
+    public void search_withoutArchiveFileReadsMainOnly() throws Exception {
+        assertEquals(4, mDb.searchOfferings(null, -1, -1, true).size());
+        assertEquals(0, mDb.archiveOfferingsBefore(201010));
+        assertEquals(4, mDb.searchOfferings(null, -1, -1, true).size());
+
+        mDb.archiveOfferingsBefore(201810);
+        assertTrue(mDb.deleteArchive());
+        assertEquals(1, mDb.searchOfferings(null, -1, -1, true).size());
+    }
+
+    @Test
+    public void archive_shrinksTheMainDatabaseFile() throws Exception {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 5000; i++)
+            csv.append(40000 + i).append(",201631,1,1,TBA,TBA,TBA\n");
+        assertTrue(mDb.importOfferingsFromCSV(
+                new ByteArrayInputStream(csv.toString().getBytes("UTF-8"))));
+        File main = mContext.getDatabasePath(DBHelper.DATABASE_NAME);
+        // Closing the helper checkpoints any write-ahead log into the main file.
+        mDb.close();
+        long before = main.length();
+
+        mDb = new DBHelper(mContext);
+        assertEquals(5003, mDb.archiveOfferingsBefore(201810));
+        mDb.close();
+        long after = main.length();
+
+        assertTrue("OCC was " + before + " bytes, is " + after + " bytes", after * 2 < before);
+        mDb = new DBHelper(mContext);
+        assertEquals(5004, mDb.searchOfferings(null, -1, -1, true).size());
+    }
+
+    @Test
+    public void concurrentArchiveSearches_doNotCollide() throws Exception {
+        mDb.archiveOfferingsBefore(201731);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < 4; t++) {
+                final int semesterCode = (t % 2 == 0) ? 201631 : 201710;
+                results.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        int found = 0;
+                        for (int i = 0; i < 50; i++) {
+                            // Each write moves the generation, so every search attaches the archive.
+                            found += mDb.searchOfferings(null, semesterCode, -1, true).size();
+                            mDb.addInstructor(new Instructor("Last", "First", "x@occ.cccd.edu"));
+                        }
+                        return found;
+                    }
+                }));
+            }
+            for (Future<Integer> result : results)
+                assertEquals(50, (int) result.get(60, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(4, mDb.searchOfferings(null, -1, -1, true).size());
+    }
+}
@@ -0,0 +1,92 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented test that every way of changing the catalog deletes the CatalogSnapshot
+ * written by DBHelper, which will execute on an Android device.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SnapshotInvalidationTest {
+
+    private Context mContext;
+    private DBHelper mDb;
+    private File mSnapshot;
+
+    @Before
+    public void setUp() throws Exception {
+        mContext = InstrumentationRegistry.getTargetContext();
+        DBHelper.deleteCatalog(mContext);
+        mDb = new DBHelper(mContext);
+        mDb.addCourse(new Course(1, "CS", "A170", "Java Programming 1"));
+        mDb.addInstructor(new Instructor(1, "Paulding", "Michael", "mpaulding@occ.cccd.edu"));
+        mDb.addOffering(30001, 201631, 1, 1, "MW", 480, 555);
+        mDb.addOffering(30002, 201810, 1, 1, "TR", 480, 555);
+
+        mSnapshot = DBHelper.getSnapshotFile(mContext);
+        assertTrue(mDb.writeSnapshot());
+        assertEquals(2, CatalogSnapshot.open(mSnapshot).getOfferingCount());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mDb.close();
+        DBHelper.deleteCatalog(mContext);
+    }
+
+    @Test
+    public void add_deletesSnapshot() throws Exception {
+        mDb.addOffering(30003, 201810, 1, 1);
+        assertFalse(mSnapshot.exists());
+
+        // A new snapshot holds the change, and the next write deletes it again.
+        assertTrue(mDb.writeSnapshot());
+        assertEquals(3, CatalogSnapshot.open(mSnapshot).getOfferingCount());
+        Course course = mDb.getCourse(1);
+        course.setTitle("Java 1");
+        mDb.updateCourse(course);
+        assertFalse(mSnapshot.exists());
+    }
+
+    @Test
+    public void writeThroughAnotherHelper_deletesSnapshot() throws Exception {
+        DBHelper other = new DBHelper(mContext);
+        other.deleteOffering(other.getOffering(30002));
+        other.close();
+        assertFalse(mSnapshot.exists());
+    }
+
+    @Test
+    public void archive_deletesSnapshot() throws Exception {
+        assertEquals(1, mDb.archiveOfferingsBefore(201731));
+        assertFalse(mSnapshot.exists());
+    }
+
+    @Test
+    public void providerWrite_deletesSnapshot() throws Exception {
+        ContentValues values = new ContentValues();
+        values.put(CatalogContract.Courses.TITLE, "Java 1");
+        int rows = mContext.getContentResolver().update(
+                CatalogContract.Courses.CONTENT_URI, values, null, null);
+        assertEquals(1, rows);
+        assertFalse(mSnapshot.exists());
+    }
+
+    @Test
+    public void import_deletesSnapshot() throws Exception {
+        mDb.importCatalogFromCSV("courses.csv", "instructors.csv", "offerings.csv");
+        assertFalse(mSnapshot.exists());
+    }
+}
@@ -0,0 +1,120 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CatalogCodec is the compression of a catalog csv file.  The csv importers read through
+ * decode, which recognizes a compressed file by its extension or, failing that, by its
+ * first two bytes, and inflates it on the fly as the parser reads: nothing is written to a
+ * temporary file and only one small buffer is held at a time.
+ *
+ * NONE     plain csv
+ * GZIP     .gz, magic 1f 8b, written by any gzip tool
+ *
+ * CatalogCodecTest reports the size and import throughput of each codec on a generated
+ * 100,000 offering file.  A fast-level zlib codec was tried and dropped: its file was a
+ * third larger than gzip's and it inflated no faster.
+ */
+enum CatalogCodec {
+    NONE(""), GZIP(".gz");
+
+    static final int BUFFER_SIZE = 8192;
+
+    private final String mExtension;
+
+    CatalogCodec(String extension) {
+        mExtension = extension;
+    }
+
+    /**
+     * getExtension returns the file name extension of this codec, e.g. ".gz".
+     * @return the extension, empty for NONE
+     */
+    String getExtension() {
+        return mExtension;
+    }
+
+    /**
+     * forName returns the codec implied by a file name's extension.
+     * @param name a file or asset name, or null
+     * @return the codec, or null if the extension is not a compressed one
+     */
+    static CatalogCodec forName(String name) {
+        if (name == null)
+            return null;
+        for (CatalogCodec codec : values())
+            if (codec != NONE && name.endsWith(codec.mExtension))
+                return codec;
+        return null;
+    }
+
+    /**
+     * detect returns the codec of a stream from its first two bytes, leaving the stream
+     * where it was.
+     * @param in a stream that supports mark and reset
+     * @return GZIP if the bytes are its magic number, otherwise NONE
+     * @throws IOException if the stream cannot be read
+     */
+    static CatalogCodec detect(InputStream in) throws IOException {
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+        if (first == 0x1f && second == 0x8b)
+            return GZIP;
+        return NONE;
+    }
+
+    /**
+     * decode returns a stream of the uncompressed csv text, whatever the compression of in.
+     * @param name the file or asset name, used for its extension, or null to rely on the
+     *             magic bytes only
+     * @param in the possibly compressed data
+     * @return the decompressing stream; closing it closes in
+     * @throws IOException if the stream cannot be read or its header is corrupt
+     */
+    static InputStream decode(String name, InputStream in) throws IOException {
+        CatalogCodec codec = forName(name);
+        if (codec == null) {
+            in = new BufferedInputStream(in, BUFFER_SIZE);
+            codec = detect(in);
+        }
+        return codec.wrap(in);
+    }
+
+    /**
+     * wrap returns a stream that decompresses in with this codec.
+     * @param in the compressed data
+     * @return the decompressing stream; closing it closes in
+     * @throws IOException if the header is corrupt
+     */
+    InputStream wrap(InputStream in) throws IOException {
+        switch (this) {
+            case GZIP:
+                return new GZIPInputStream(in, BUFFER_SIZE);
+            default:
+                return in;
+        }
+    }
+
+    /**
+     * encode returns a stream that compresses what is written to it with this codec, e.g. to
+     * prepare compressed assets.
+     * @param out where the compressed data goes
+     * @return the compressing stream; closing it finishes the data and closes out
+     * @throws IOException if out cannot be written
+     */
+    OutputStream encode(OutputStream out) throws IOException {
+        switch (this) {
+            case GZIP:
+                return new GZIPOutputStream(out, BUFFER_SIZE);
+            default:
+                return out;
+        }
+    }
+}
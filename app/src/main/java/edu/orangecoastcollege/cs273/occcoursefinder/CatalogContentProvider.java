@@ -0,0 +1,387 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import android.content.ContentProvider;
+import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
+import android.content.ContentUris;
+import android.content.ContentValues;
+import android.content.OperationApplicationException;
+import android.content.UriMatcher;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteQueryBuilder;
+import android.net.Uri;
+import android.text.TextUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import edu.orangecoastcollege.cs273.occcoursefinder.CatalogContract.Courses;
+import edu.orangecoastcollege.cs273.occcoursefinder.CatalogContract.Instructors;
+import edu.orangecoastcollege.cs273.occcoursefinder.CatalogContract.Offerings;
+
+/**
+ * CatalogContentProvider shares the Courses, Instructors and Offerings tables with other
+ * processes, such as kiosks and widgets, through the URIs of CatalogContract.
+ *
+ * Queries go straight to SQL through an SQLiteQueryBuilder: only the columns in the
+ * projection are read, the selection runs in the database, and no Course, Instructor or
+ * Offering objects are built.  The builder is strict and only accepts the contract's
+ * column names.
+ *
+ * bulkInsert and applyBatch each run in a single transaction.  Change notifications are
+ * sent for the URIs that were actually written (the row's URI for a single row, the table's
+ * URI otherwise), once per URI and only after the transaction commits.  Every write is also
+ * reported to DBHelper.tableWritten, so cached searches, statistics and the catalog snapshot
+ * of the app see it; the tables written by a batch are likewise reported once it commits,
+ * since a search run in between would otherwise cache what it read before the commit as
+ * current.
+ */
+public class CatalogContentProvider extends ContentProvider {
+
+    private static final int COURSES = 100;
+    private static final int COURSE_ID = 101;
+    private static final int INSTRUCTORS = 200;
+    private static final int INSTRUCTOR_ID = 201;
+    private static final int OFFERINGS = 300;
+    private static final int OFFERING_CRN = 301;
+
+    private static final UriMatcher sUriMatcher = new UriMatcher(UriMatcher.NO_MATCH);
+    private static final HashMap<String, String> sCourseColumns = new HashMap<>();
+    private static final HashMap<String, String> sInstructorColumns = new HashMap<>();
+    private static final HashMap<String, String> sOfferingColumns = new HashMap<>();
+
+    static {
+        sUriMatcher.addURI(CatalogContract.AUTHORITY, Courses.PATH, COURSES);
+        sUriMatcher.addURI(CatalogContract.AUTHORITY, Courses.PATH + "/#", COURSE_ID);
+        sUriMatcher.addURI(CatalogContract.AUTHORITY, Instructors.PATH, INSTRUCTORS);
+        sUriMatcher.addURI(CatalogContract.AUTHORITY, Instructors.PATH + "/#", INSTRUCTOR_ID);
+        sUriMatcher.addURI(CatalogContract.AUTHORITY, Offerings.PATH, OFFERINGS);
+        sUriMatcher.addURI(CatalogContract.AUTHORITY,
+                Offerings.PATH + "/" + Offerings.PATH_CRN + "/#", OFFERING_CRN);
+
+        for (String column : new String[]{Courses._ID, Courses.ALPHA, Courses.NUMBER,
+                Courses.TITLE})
+            sCourseColumns.put(column, column);
+        for (String column : new String[]{Instructors._ID, Instructors.FIRST_NAME,
+                Instructors.LAST_NAME, Instructors.EMAIL})
+            sInstructorColumns.put(column, column);
+        for (String column : new String[]{Offerings.CRN, Offerings.SEMESTER_CODE,
+                Offerings.COURSE_ID, Offerings.INSTRUCTOR_ID, Offerings.MEETING_DAYS,
+                Offerings.START_TIME, Offerings.END_TIME})
+            sOfferingColumns.put(column, column);
+        // The Offerings table has no key column of its own.
+        sOfferingColumns.put(Offerings._ID, "rowid AS " + Offerings._ID);
+    }
+
+    private DBHelper mDb;
+    // URIs written by the batch running on this thread, notified when it commits
+    private final ThreadLocal<Set<Uri>> mBatchChanges = new ThreadLocal<>();
+    // Tables written by the batch or bulk insert running on this thread, reported when it commits
+    private final ThreadLocal<Set<String>> mBatchTables = new ThreadLocal<>();
+
+    @Override
+    public boolean onCreate() {
+        mDb = new DBHelper(getContext());
+        return true;
+    }
+
+    @Override
+    public String getType(Uri uri) {
+        switch (sUriMatcher.match(uri)) {
+            case COURSES:
+                return Courses.CONTENT_TYPE;
+            case COURSE_ID:
+                return Courses.CONTENT_ITEM_TYPE;
+            case INSTRUCTORS:
+                return Instructors.CONTENT_TYPE;
+            case INSTRUCTOR_ID:
+                return Instructors.CONTENT_ITEM_TYPE;
+            case OFFERINGS:
+            case OFFERING_CRN:
+                // Several semesters may share a CRN.
+                return Offerings.CONTENT_TYPE;
+            default:
+                return null;
+        }
+    }
+
+    //********** QUERY
+
+    /**
+     * query reads the rows matching the URI and selection, with only the projected columns.
+     * A null projection returns every column of the contract.
+     */
+    @Override
+    public Cursor query(Uri uri, String[] projection, String selection, String[] selectionArgs,
+                        String sortOrder) {
+        DBTrace.beginSection("CatalogContentProvider.query");
+        try {
+            int match = sUriMatcher.match(uri);
+            SQLiteQueryBuilder builder = new SQLiteQueryBuilder();
+            builder.setTables(table(match, uri));
+            builder.setProjectionMap(columns(match));
+            builder.setStrict(true);
+            String key = keyColumn(match);
+            if (key != null) {
+                builder.appendWhere(key + " = ");
+                builder.appendWhereEscapeString(uri.getLastPathSegment());
+            }
+
+            Cursor cursor = builder.query(mDb.getReadableDatabase(), projection, selection,
+                    selectionArgs, null, null, sortOrder);
+            cursor.setNotificationUri(getContext().getContentResolver(), uri);
+            return cursor;
+        } finally {
+            DBTrace.endSection();
+        }
+    }
+
+    //********** WRITES
+
+    /**
+     * insert adds one row to the table of a directory URI.
+     * @return the URI of the new row (for an offering, the URI of its CRN)
+     */
+    @Override
+    public Uri insert(Uri uri, ContentValues values) {
+        DBTrace.beginSection("CatalogContentProvider.insert");
+        try {
+            Uri row = insertRow(mDb.getWritableDatabase(), uri, values);
+            if (row != null)
+                changed(row);
+            return row;
+        } finally {
+            DBTrace.endSection();
+        }
+    }
+
+    /**
+     * bulkInsert adds every row to the table of a directory URI in a single transaction, and
+     * sends one change notification for the table.
+     * @return the number of rows inserted
+     */
+    @Override
+    public int bulkInsert(Uri uri, ContentValues[] values) {
+        DBTrace.beginSection("CatalogContentProvider.bulkInsert");
+        try {
+            SQLiteDatabase db = mDb.getWritableDatabase();
+            int inserted = 0;
+            Set<String> tables = new LinkedHashSet<>();
+            mBatchTables.set(tables);
+            db.beginTransaction();
+            try {
+                for (ContentValues row : values)
+                    if (insertRow(db, uri, row) != null)
+                        inserted++;
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+                mBatchTables.remove();
+            }
+            for (String table : tables)
+                mDb.tableWritten(table);
+            if (inserted > 0)
+                changed(uri);
+            return inserted;
+        } finally {
+            mBatchTables.remove();
+            DBTrace.endSection();
+        }
+    }
+
+    /**
+     * applyBatch applies the operations in a single transaction: either all of them are
+     * committed or, if one fails, none.  Each written URI is notified once, after the commit.
+     */
+    @Override
+    public ContentProviderResult[] applyBatch(ArrayList<ContentProviderOperation> operations)
+            throws OperationApplicationException {
+        DBTrace.beginSection("CatalogContentProvider.applyBatch");
+        Set<Uri> changes = new LinkedHashSet<>();
+        Set<String> tables = new LinkedHashSet<>();
+        mBatchChanges.set(changes);
+        mBatchTables.set(tables);
+        try {
+            SQLiteDatabase db = mDb.getWritableDatabase();
+            ContentProviderResult[] results;
+            db.beginTransaction();
+            try {
+                results = super.applyBatch(operations);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            mBatchChanges.remove();
+            mBatchTables.remove();
+            for (String table : tables)
+                mDb.tableWritten(table);
+            for (Uri uri : changes)
+                changed(uri);
+            return results;
+        } finally {
+            mBatchChanges.remove();
+            mBatchTables.remove();
+            DBTrace.endSection();
+        }
+    }
+
+    /**
+     * update changes the rows matching the URI and selection.
+     * @return the number of rows updated
+     */
+    @Override
+    public int update(Uri uri, ContentValues values, String selection, String[] selectionArgs) {
+        DBTrace.beginSection("CatalogContentProvider.update");
+        try {
+            int match = sUriMatcher.match(uri);
+            String table = table(match, uri);
+            int count = mDb.getWritableDatabase().update(table, values,
+                    where(match, selection), whereArgs(match, uri, selectionArgs));
+            if (count > 0) {
+                written(table);
+                changed(uri);
+            }
+            return count;
+        } finally {
+            DBTrace.endSection();
+        }
+    }
+
+    /**
+     * delete removes the rows matching the URI and selection.
+     * @return the number of rows deleted
+     */
+    @Override
+    public int delete(Uri uri, String selection, String[] selectionArgs) {
+        DBTrace.beginSection("CatalogContentProvider.delete");
+        try {
+            int match = sUriMatcher.match(uri);
+            String table = table(match, uri);
+            // A null where clause would not return the number of rows deleted.
+            String where = where(match, selection);
+            int count = mDb.getWritableDatabase().delete(table, (where == null) ? "1" : where,
+                    whereArgs(match, uri, selectionArgs));
+            if (count > 0) {
+                written(table);
+                changed(uri);
+            }
+            return count;
+        } finally {
+            DBTrace.endSection();
+        }
+    }
+
+    /**
+     * insertRow inserts one row into the table of a directory URI.
+     * @return the URI of the new row, or null if the insert failed (e.g. an id already taken)
+     */
+    private Uri insertRow(SQLiteDatabase db, Uri uri, ContentValues values) {
+        int match = sUriMatcher.match(uri);
+        if (match != COURSES && match != INSTRUCTORS && match != OFFERINGS)
+            throw new IllegalArgumentException("Cannot insert into " + uri);
+        String table = table(match, uri);
+        long rowId = db.insert(table, null, values);
+        if (rowId == -1)
+            return null;
+        written(table);
+        if (match == OFFERINGS) {
+            Integer crn = values.getAsInteger(Offerings.CRN);
+            return (crn == null) ? uri : Offerings.buildCrnUri(crn);
+        }
+        return ContentUris.withAppendedId(uri, rowId);
+    }
+
+    /**
+     * written reports a write to a table to DBHelper.tableWritten, or remembers it until the
+     * running batch or bulk insert commits.
+     */
+    private void written(String table) {
+        Set<String> batch = mBatchTables.get();
+        if (batch != null)
+            batch.add(table);
+        else
+            mDb.tableWritten(table);
+    }
+
+    /**
+     * changed notifies observers of a URI, or remembers it until the running batch commits.
+     * Observers of a table that registered for descendants also hear about its rows.
+     */
+    private void changed(Uri uri) {
+        Set<Uri> batch = mBatchChanges.get();
+        if (batch != null)
+            batch.add(uri);
+        else
+            getContext().getContentResolver().notifyChange(uri, null);
+    }
+
+    //********** URI MAPPING
+
+    private static String table(int match, Uri uri) {
+        switch (match) {
+            case COURSES:
+            case COURSE_ID:
+                return DBHelper.COURSES_TABLE;
+            case INSTRUCTORS:
+            case INSTRUCTOR_ID:
+                return DBHelper.INSTRUCTORS_TABLE;
+            case OFFERINGS:
+            case OFFERING_CRN:
+                return DBHelper.OFFERINGS_TABLE;
+            default:
+                throw new IllegalArgumentException("Unknown URI " + uri);
+        }
+    }
+
+    private static HashMap<String, String> columns(int match) {
+        switch (match) {
+            case COURSES:
+            case COURSE_ID:
+                return sCourseColumns;
+            case INSTRUCTORS:
+            case INSTRUCTOR_ID:
+                return sInstructorColumns;
+            default:
+                return sOfferingColumns;
+        }
+    }
+
+    /**
+     * keyColumn returns the column matched by the last segment of an item URI, or null for
+     * a directory URI.
+     */
+    private static String keyColumn(int match) {
+        switch (match) {
+            case COURSE_ID:
+                return Courses._ID;
+            case INSTRUCTOR_ID:
+                return Instructors._ID;
+            case OFFERING_CRN:
+                return Offerings.CRN;
+            default:
+                return null;
+        }
+    }
+
+    private static String where(int match, String selection) {
+        String key = keyColumn(match);
+        if (key == null)
+            return selection;
+        String byKey = key + " = ?";
+        return TextUtils.isEmpty(selection) ? byKey : byKey + " AND (" + selection + ")";
+    }
+
+    private static String[] whereArgs(int match, Uri uri, String[] selectionArgs) {
+        if (keyColumn(match) == null)
+            return selectionArgs;
+        int count = (selectionArgs == null) ? 0 : selectionArgs.length;
+        String[] args = new String[count + 1];
+        args[0] = uri.getLastPathSegment();
+        if (count > 0)
+            System.arraycopy(selectionArgs, 0, args, 1, count);
+        return args;
+    }
+}
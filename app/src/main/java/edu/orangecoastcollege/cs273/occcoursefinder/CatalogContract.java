@@ -0,0 +1,111 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import android.content.ContentResolver;
+import android.net.Uri;
+import android.provider.BaseColumns;
+
+/**
+ * CatalogContract is the public description of CatalogContentProvider: its authority, URIs,
+ * MIME types and column names.  Processes outside the app (kiosks, widgets) use it to read
+ * and write the catalog through a ContentResolver, e.g.
+ *
+ * getContentResolver().query(CatalogContract.Courses.CONTENT_URI,
+ *         new String[]{CatalogContract.Courses._ID, CatalogContract.Courses.TITLE},
+ *         CatalogContract.Courses.ALPHA + " = ?", new String[]{"CS"}, null);
+ *
+ * The column names are also the column names of DBHelper's tables.
+ * Access requires the READ_CATALOG or WRITE_CATALOG permission, which is granted only to
+ * apps signed with the same key.
+ */
+public final class CatalogContract {
+
+    public static final String AUTHORITY = "edu.orangecoastcollege.cs273.occcoursefinder.catalog";
+    public static final Uri CONTENT_URI = Uri.parse("content://" + AUTHORITY);
+
+    public static final String READ_PERMISSION =
+            "edu.orangecoastcollege.cs273.occcoursefinder.permission.READ_CATALOG";
+    public static final String WRITE_PERMISSION =
+            "edu.orangecoastcollege.cs273.occcoursefinder.permission.WRITE_CATALOG";
+
+    private static final String MIME_SUBTYPE = "/vnd.edu.orangecoastcollege.cs273.";
+
+    private CatalogContract() {
+    }
+
+    /**
+     * Courses: content://AUTHORITY/courses and content://AUTHORITY/courses/{_id}
+     */
+    public static final class Courses implements BaseColumns {
+        public static final String PATH = "courses";
+        public static final Uri CONTENT_URI =
+                Uri.withAppendedPath(CatalogContract.CONTENT_URI, PATH);
+        public static final String CONTENT_TYPE =
+                ContentResolver.CURSOR_DIR_BASE_TYPE + MIME_SUBTYPE + "course";
+        public static final String CONTENT_ITEM_TYPE =
+                ContentResolver.CURSOR_ITEM_BASE_TYPE + MIME_SUBTYPE + "course";
+
+        public static final String ALPHA = "alpha";
+        public static final String NUMBER = "number";
+        public static final String TITLE = "title";
+
+        private Courses() {
+        }
+    }
+
+    /**
+     * Instructors: content://AUTHORITY/instructors and content://AUTHORITY/instructors/{_id}
+     */
+    public static final class Instructors implements BaseColumns {
+        public static final String PATH = "instructors";
+        public static final Uri CONTENT_URI =
+                Uri.withAppendedPath(CatalogContract.CONTENT_URI, PATH);
+        public static final String CONTENT_TYPE =
+                ContentResolver.CURSOR_DIR_BASE_TYPE + MIME_SUBTYPE + "instructor";
+        public static final String CONTENT_ITEM_TYPE =
+                ContentResolver.CURSOR_ITEM_BASE_TYPE + MIME_SUBTYPE + "instructor";
+
+        public static final String FIRST_NAME = "first_name";
+        public static final String LAST_NAME = "last_name";
+        public static final String EMAIL = "email";
+
+        private Instructors() {
+        }
+    }
+
+    /**
+     * Offerings: content://AUTHORITY/offerings and content://AUTHORITY/offerings/crn/{crn}.
+     * The _ID of an offering is its row id, which is not stable across imports; use the CRN
+     * to refer to an offering.  Times are minutes after midnight, or -1 for TBA.
+     */
+    public static final class Offerings implements BaseColumns {
+        public static final String PATH = "offerings";
+        public static final String PATH_CRN = "crn";
+        public static final Uri CONTENT_URI =
+                Uri.withAppendedPath(CatalogContract.CONTENT_URI, PATH);
+        public static final String CONTENT_TYPE =
+                ContentResolver.CURSOR_DIR_BASE_TYPE + MIME_SUBTYPE + "offering";
+        public static final String CONTENT_ITEM_TYPE =
+                ContentResolver.CURSOR_ITEM_BASE_TYPE + MIME_SUBTYPE + "offering";
+
+        public static final String CRN = "crn";
+        public static final String SEMESTER_CODE = "semester_code";
+        public static final String COURSE_ID = "course_id";
+        public static final String INSTRUCTOR_ID = "instructor_id";
+        public static final String MEETING_DAYS = "meeting_days";
+        public static final String START_TIME = "start_time";
+        public static final String END_TIME = "end_time";
+
+        private Offerings() {
+        }
+
+        /**
+         * buildCrnUri returns the URI of the offerings with a CRN.
+         * @param crn the CRN
+         * @return content://AUTHORITY/offerings/crn/{crn}
+         */
+        public static Uri buildCrnUri(int crn) {
+            return CONTENT_URI.buildUpon().appendPath(PATH_CRN)
+                    .appendPath(String.valueOf(crn)).build();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+/**
+ * CatalogCsv parses single lines of the courses, instructors and offerings csv files.
+ * It has no Android dependencies, so the same parsing is shared by DBHelper's imports and
+ * by the local unit tests that read the csv assets directly.
+ *
+ * The formats are:
+ * courses.csv      id,alpha,number,title
+ * instructors.csv  id,last name,first name,email
+ * offerings.csv    crn,semester code,course id,instructor id[,days,start HH:MM,end HH:MM]
+ *
+ * Each parse method returns null for a malformed row so the caller can log and skip it.
+ */
+class CatalogCsv {
+
+    /**
+     * OfferingRow holds the fields of one offerings.csv row.  Unlike an Offering it refers to
+     * its course and instructor by id only.
+     */
+    static final class OfferingRow {
+        final int crn;
+        final int semesterCode;
+        final long courseId;
+        final long instructorId;
+        final String meetingDays;
+        final int startTime;
+        final int endTime;
+
+        OfferingRow(int crn, int semesterCode, long courseId, long instructorId,
+                    String meetingDays, int startTime, int endTime) {
+            this.crn = crn;
+            this.semesterCode = semesterCode;
+            this.courseId = courseId;
+            this.instructorId = instructorId;
+            this.meetingDays = meetingDays;
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+    }
+
+    private CatalogCsv() {
+    }
+
+    /**
+     * parseCourse parses one courses.csv row.
+     * @param line the csv row
+     * @param strings pool to deduplicate the text fields, or null
+     * @return the Course, or null if the row is malformed
+     */
+    static Course parseCourse(String line, StringPool strings) {
+        String[] fields = line.split(",");
+        if (fields.length != 4)
+            return null;
+        try {
+            int id = Integer.parseInt(fields[0].trim());
+            return new Course(id,
+                    intern(strings, fields[1].trim()),
+                    intern(strings, fields[2].trim()),
+                    intern(strings, fields[3].trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * parseInstructor parses one instructors.csv row.
+     * @param line the csv row
+     * @param strings pool to deduplicate the name fields, or null
+     * @return the Instructor, or null if the row is malformed
+     */
+    static Instructor parseInstructor(String line, StringPool strings) {
+        String[] fields = line.split(",");
+        if (fields.length != 4)
+            return null;
+        try {
+            int id = Integer.parseInt(fields[0].trim());
+            return new Instructor(id,
+                    intern(strings, fields[1].trim()),
+                    intern(strings, fields[2].trim()),
+                    intern(strings, fields[3].trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * parseOffering parses one offerings.csv row, with or without the meeting time columns.
+     * Rows without a meeting time, or with TBA, get empty days and times of -1.
+     * @param line the csv row
+     * @param strings pool to deduplicate the meeting days, or null
+     * @return the OfferingRow, or null if the row is malformed
+     */
+    static OfferingRow parseOffering(String line, StringPool strings) {
+        String[] fields = line.split(",");
+        if (fields.length != 4 && fields.length != 7)
+            return null;
+        try {
+            int crn = Integer.parseInt(fields[0].trim());
+            int semesterCode = Integer.parseInt(fields[1].trim());
+            long courseId = Long.parseLong(fields[2].trim());
+            long instructorId = Long.parseLong(fields[3].trim());
+            String meetingDays = "";
+            int startTime = -1;
+            int endTime = -1;
+            if (fields.length == 7) {
+                meetingDays = fields[4].trim();
+                if (Offering.TBA.equalsIgnoreCase(meetingDays))
+                    meetingDays = "";
+                startTime = Offering.parseTime(fields[5]);
+                endTime = Offering.parseTime(fields[6]);
+            }
+            return new OfferingRow(crn, semesterCode, courseId, instructorId,
+                    intern(strings, meetingDays), startTime, endTime);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String intern(StringPool strings, String value) {
+        return (strings == null) ? value : strings.intern(value);
+    }
+}
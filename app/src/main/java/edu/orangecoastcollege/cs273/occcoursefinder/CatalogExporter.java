@@ -0,0 +1,212 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CatalogExporter writes offerings to an OutputStream one row at a time, as csv or JSON,
+ * optionally gzip compressed.  Nothing is collected in memory: each row goes into a buffer
+ * of BUFFER_SIZE characters that is flushed to the stream as it fills, so exporting a
+ * million offerings takes as little memory as exporting a hundred.
+ *
+ * CSV rows use the offerings.csv format (crn,semester code,course id,instructor id,days,
+ * start,end with TBA for offerings without a meeting time), so an export can be imported
+ * again.  JSON is an array with one object per line that also includes the course and
+ * instructor, for advisors and other systems that do not have the rest of the catalog.
+ *
+ * The stream is finished and closed by close().
+ */
+class CatalogExporter implements Closeable {
+
+    /**
+     * Format is the output format of an export.
+     */
+    enum Format {
+        CSV, JSON
+    }
+
+    static final int BUFFER_SIZE = 8192;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final Writer mWriter;
+    private final Format mFormat;
+    private int mRowCount;
+    private boolean mClosed;
+
+    /**
+     * CatalogExporter is a parameterized constructor that starts an export.
+     * @param out the stream to write to
+     * @param format CSV or JSON
+     * @param gzip true to gzip compress the output
+     * @throws IOException if the stream cannot be written
+     */
+    CatalogExporter(OutputStream out, Format format, boolean gzip) throws IOException {
+        if (gzip)
+            out = new GZIPOutputStream(out, BUFFER_SIZE);
+        mWriter = new BufferedWriter(new OutputStreamWriter(out, UTF_8), BUFFER_SIZE);
+        mFormat = format;
+        if (mFormat == Format.JSON)
+            mWriter.write('[');
+    }
+
+    /**
+     * writeOffering writes one row of a joined offering.
+     * @throws IOException if the stream cannot be written
+     */
+    void writeOffering(int crn, int semesterCode,
+                       long courseId, String alpha, String number, String title,
+                       long instructorId, String lastName, String firstName, String email,
+                       String meetingDays, int startTime, int endTime) throws IOException {
+        boolean tba = (meetingDays == null || meetingDays.isEmpty());
+        if (mFormat == Format.CSV) {
+            mWriter.write(Integer.toString(crn));
+            mWriter.write(',');
+            mWriter.write(Integer.toString(semesterCode));
+            mWriter.write(',');
+            mWriter.write(Long.toString(courseId));
+            mWriter.write(',');
+            mWriter.write(Long.toString(instructorId));
+            mWriter.write(',');
+            mWriter.write(tba ? Offering.TBA : meetingDays);
+            mWriter.write(',');
+            writeTime(tba ? -1 : startTime, false);
+            mWriter.write(',');
+            writeTime(tba ? -1 : endTime, false);
+            mWriter.write('\n');
+        } else {
+            mWriter.write((mRowCount == 0) ? "\n{\"crn\":" : ",\n{\"crn\":");
+            mWriter.write(Integer.toString(crn));
+            mWriter.write(",\"semesterCode\":");
+            mWriter.write(Integer.toString(semesterCode));
+            mWriter.write(",\"course\":{\"id\":");
+            mWriter.write(Long.toString(courseId));
+            mWriter.write(",\"alpha\":");
+            writeJsonString(alpha);
+            mWriter.write(",\"number\":");
+            writeJsonString(number);
+            mWriter.write(",\"title\":");
+            writeJsonString(title);
+            mWriter.write("},\"instructor\":{\"id\":");
+            mWriter.write(Long.toString(instructorId));
+            mWriter.write(",\"lastName\":");
+            writeJsonString(lastName);
+            mWriter.write(",\"firstName\":");
+            writeJsonString(firstName);
+            mWriter.write(",\"email\":");
+            writeJsonString(email);
+            mWriter.write("},\"meetingDays\":");
+            writeJsonString(tba ? null : meetingDays);
+            mWriter.write(",\"startTime\":");
+            writeTime(tba ? -1 : startTime, true);
+            mWriter.write(",\"endTime\":");
+            writeTime(tba ? -1 : endTime, true);
+            mWriter.write('}');
+        }
+        mRowCount++;
+    }
+
+    /**
+     * writeOffering writes one Offering, which must have its Course and Instructor.
+     * @param offering the offering to write
+     * @throws IOException if the stream cannot be written
+     */
+    void writeOffering(Offering offering) throws IOException {
+        Course course = offering.getCourse();
+        Instructor instructor = offering.getInstructor();
+        writeOffering(offering.getCRN(), offering.getSemesterCode(),
+                course.getId(), course.getAlpha(), course.getNumber(), course.getTitle(),
+                instructor.getId(), instructor.getLastName(), instructor.getFirstName(),
+                instructor.getEmail(),
+                offering.getMeetingDays(), offering.getStartTime(), offering.getEndTime());
+    }
+
+    /**
+     * getRowCount returns the number of offerings written so far.
+     * @return the row count
+     */
+    int getRowCount() {
+        return mRowCount;
+    }
+
+    /**
+     * close ends the JSON array, finishes the gzip stream if any and closes the stream.
+     * @throws IOException if the stream cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (mClosed)
+            return;
+        mClosed = true;
+        try {
+            if (mFormat == Format.JSON)
+                mWriter.write((mRowCount == 0) ? "]\n" : "\n]\n");
+        } finally {
+            mWriter.close();
+        }
+    }
+
+    /**
+     * writeTime writes a time as HH:MM, or TBA (csv) / null (JSON) for -1.
+     */
+    private void writeTime(int minutes, boolean json) throws IOException {
+        if (minutes < 0) {
+            mWriter.write(json ? "null" : Offering.TBA);
+            return;
+        }
+        if (json)
+            mWriter.write('"');
+        writeTwoDigits(minutes / 60);
+        mWriter.write(':');
+        writeTwoDigits(minutes % 60);
+        if (json)
+            mWriter.write('"');
+    }
+
+    private void writeTwoDigits(int value) throws IOException {
+        mWriter.write('0' + value / 10 % 10);
+        mWriter.write('0' + value % 10);
+    }
+
+    private void writeJsonString(String value) throws IOException {
+        if (value == null) {
+            mWriter.write("null");
+            return;
+        }
+        mWriter.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    mWriter.write("\\\"");
+                    break;
+                case '\\':
+                    mWriter.write("\\\\");
+                    break;
+                case '\n':
+                    mWriter.write("\\n");
+                    break;
+                case '\r':
+                    mWriter.write("\\r");
+                    break;
+                case '\t':
+                    mWriter.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        mWriter.write("\\u00");
+                        mWriter.write(Character.forDigit(c >> 4, 16));
+                        mWriter.write(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        mWriter.write(c);
+                    }
+            }
+        }
+        mWriter.write('"');
+    }
+}
@@ -0,0 +1,482 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * The <code>CatalogSnapshot</code> class is a read-only copy of the whole catalog in a compact
+ * binary file, read back through a memory-mapped buffer.  Opening a snapshot costs one mmap
+ * and a checksum pass; numeric fields are then read straight out of the mapping and strings
+ * are decoded only when first asked for, so startup can skip the database entirely.
+ *
+ * The file layout (all integers big-endian) is:
+ *
+ * header (32 bytes)   magic "OCCS", version, course count, instructor count, offering count,
+ *                     string count, string data length, CRC32 of everything after the header
+ * courses             id (long), alpha, number, title (string indexes)             20 bytes each
+ * instructors         id (long), last name, first name, email (string indexes)     20 bytes each
+ * offerings           crn, semester code, course index, instructor index,
+ *                     meeting days (string index), start time, end time (shorts)   24 bytes each
+ * string index        string count + 1 offsets into the string data
+ * string data         the UTF-8 bytes of every distinct string
+ *
+ * Offerings refer to their course and instructor by record index, not by id, so a search
+ * can join them without any lookup.  A string index of -1 stands for null.
+ */
+final class CatalogSnapshot {
+
+    static final int MAGIC = 0x4F434353;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int COURSE_RECORD_SIZE = 20;
+    static final int INSTRUCTOR_RECORD_SIZE = 20;
+    static final int OFFERING_RECORD_SIZE = 24;
+
+    private static final int CHECKSUM_OFFSET = 28;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ByteBuffer mBuffer;
+    private final int mCourseCount;
+    private final int mInstructorCount;
+    private final int mOfferingCount;
+    private final int mStringCount;
+    private final int mInstructorsOffset;
+    private final int mOfferingsOffset;
+    private final int mStringIndexOffset;
+    private final int mStringDataOffset;
+    private final String[] mStrings;
+
+    private CatalogSnapshot(ByteBuffer buffer, int courseCount, int instructorCount,
+                            int offeringCount, int stringCount) {
+        mBuffer = buffer;
+        mCourseCount = courseCount;
+        mInstructorCount = instructorCount;
+        mOfferingCount = offeringCount;
+        mStringCount = stringCount;
+        mInstructorsOffset = HEADER_SIZE + courseCount * COURSE_RECORD_SIZE;
+        mOfferingsOffset = mInstructorsOffset + instructorCount * INSTRUCTOR_RECORD_SIZE;
+        mStringIndexOffset = mOfferingsOffset + offeringCount * OFFERING_RECORD_SIZE;
+        mStringDataOffset = mStringIndexOffset + 4 * (stringCount + 1);
+        mStrings = new String[stringCount];
+    }
+
+    //********** WRITING
+
+    /**
+     * write saves the catalog as a snapshot file.  The file is written under a temporary
+     * name and renamed into place, so a reader never sees a half-written snapshot; if the
+     * write fails the temporary file is deleted.  Offerings whose course or instructor is
+     * not in the lists are kept, with no course or instructor, just as getAllOfferings of
+     * DBHelper returns them.
+     * @param file the snapshot file to create or replace
+     * @param courses every Course in the catalog
+     * @param instructors every Instructor in the catalog
+     * @param offerings every Offering in the catalog
+     * @throws IOException if the file cannot be written
+     */
+    static void write(File file, List<Course> courses, List<Instructor> instructors,
+                      List<Offering> offerings) throws IOException {
+        LinkedHashMap<String, Integer> stringIds = new LinkedHashMap<>();
+        HashMap<Long, Integer> courseIndexes = new HashMap<>();
+        HashMap<Long, Integer> instructorIndexes = new HashMap<>();
+        for (int i = 0; i < courses.size(); i++) {
+            Course course = courses.get(i);
+            courseIndexes.put(course.getId(), i);
+            stringId(stringIds, course.getAlpha());
+            stringId(stringIds, course.getNumber());
+            stringId(stringIds, course.getTitle());
+        }
+        for (int i = 0; i < instructors.size(); i++) {
+            Instructor instructor = instructors.get(i);
+            instructorIndexes.put(instructor.getId(), i);
+            stringId(stringIds, instructor.getLastName());
+            stringId(stringIds, instructor.getFirstName());
+            stringId(stringIds, instructor.getEmail());
+        }
+        for (Offering offering : offerings)
+            stringId(stringIds, offering.getMeetingDays());
+
+        List<byte[]> encoded = new ArrayList<>(stringIds.size());
+        int stringDataLength = 0;
+        for (String value : stringIds.keySet()) {
+            byte[] bytes = value.getBytes(UTF_8);
+            encoded.add(bytes);
+            stringDataLength += bytes.length;
+        }
+
+        File temp = new File(file.getPath() + ".tmp");
+        boolean renamed = false;
+        try {
+            FileOutputStream fileStream = new FileOutputStream(temp);
+            CRC32 crc = new CRC32();
+            try {
+                BufferedOutputStream buffered = new BufferedOutputStream(fileStream, 64 * 1024);
+                DataOutputStream header = new DataOutputStream(buffered);
+                header.writeInt(MAGIC);
+                header.writeInt(VERSION);
+                header.writeInt(courses.size());
+                header.writeInt(instructors.size());
+                header.writeInt(offerings.size());
+                header.writeInt(encoded.size());
+                header.writeInt(stringDataLength);
+                header.writeInt(0);
+                header.flush();
+
+                DataOutputStream body =
+                        new DataOutputStream(new CheckedOutputStream(buffered, crc));
+                for (Course course : courses) {
+                    body.writeLong(course.getId());
+                    body.writeInt(stringId(stringIds, course.getAlpha()));
+                    body.writeInt(stringId(stringIds, course.getNumber()));
+                    body.writeInt(stringId(stringIds, course.getTitle()));
+                }
+                for (Instructor instructor : instructors) {
+                    body.writeLong(instructor.getId());
+                    body.writeInt(stringId(stringIds, instructor.getLastName()));
+                    body.writeInt(stringId(stringIds, instructor.getFirstName()));
+                    body.writeInt(stringId(stringIds, instructor.getEmail()));
+                }
+                for (Offering offering : offerings) {
+                    body.writeInt(offering.getCRN());
+                    body.writeInt(offering.getSemesterCode());
+                    body.writeInt(recordIndex(courseIndexes,
+                            offering.getCourse() == null ? null : offering.getCourse().getId()));
+                    body.writeInt(recordIndex(instructorIndexes, offering.getInstructor() == null
+                            ? null : offering.getInstructor().getId()));
+                    body.writeInt(stringId(stringIds, offering.getMeetingDays()));
+                    body.writeShort(offering.getStartTime());
+                    body.writeShort(offering.getEndTime());
+                }
+                int offset = 0;
+                for (byte[] bytes : encoded) {
+                    body.writeInt(offset);
+                    offset += bytes.length;
+                }
+                body.writeInt(offset);
+                for (byte[] bytes : encoded)
+                    body.write(bytes);
+                body.flush();
+            } finally {
+                fileStream.close();
+            }
+
+            RandomAccessFile patch = new RandomAccessFile(temp, "rw");
+            try {
+                patch.seek(CHECKSUM_OFFSET);
+                patch.writeInt((int) crc.getValue());
+            } finally {
+                patch.close();
+            }
+            if (!temp.renameTo(file))
+                throw new IOException("Could not replace snapshot " + file);
+            renamed = true;
+        } finally {
+            // A failed write leaves no partial file behind.
+            if (!renamed)
+                temp.delete();
+        }
+    }
+
+    private static int stringId(LinkedHashMap<String, Integer> stringIds, String value) {
+        if (value == null)
+            return -1;
+        Integer id = stringIds.get(value);
+        if (id == null) {
+            id = stringIds.size();
+            stringIds.put(value, id);
+        }
+        return id;
+    }
+
+    private static int recordIndex(HashMap<Long, Integer> indexes, Long id) {
+        Integer index = (id == null) ? null : indexes.get(id);
+        return (index == null) ? -1 : index;
+    }
+
+    //********** OPENING
+
+    /**
+     * open maps a snapshot file into memory and checks its header, size and checksum.
+     * @param file the snapshot file
+     * @return the opened snapshot
+     * @throws IOException if the file is missing, truncated, of another version or corrupt
+     */
+    static CatalogSnapshot open(File file) throws IOException {
+        ByteBuffer buffer;
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        try {
+            long length = input.length();
+            if (length < HEADER_SIZE || length > Integer.MAX_VALUE)
+                throw new IOException("Bad snapshot size " + length + ": " + file);
+            buffer = input.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, length);
+        } finally {
+            input.close();
+        }
+
+        if (buffer.getInt(0) != MAGIC)
+            throw new IOException("Not a catalog snapshot: " + file);
+        if (buffer.getInt(4) != VERSION)
+            throw new IOException("Unsupported snapshot version " + buffer.getInt(4) + ": " + file);
+        int courseCount = buffer.getInt(8);
+        int instructorCount = buffer.getInt(12);
+        int offeringCount = buffer.getInt(16);
+        int stringCount = buffer.getInt(20);
+        int stringDataLength = buffer.getInt(24);
+        if (courseCount < 0 || instructorCount < 0 || offeringCount < 0
+                || stringCount < 0 || stringDataLength < 0)
+            throw new IOException("Corrupt snapshot header: " + file);
+        long expected = (long) HEADER_SIZE
+                + (long) courseCount * COURSE_RECORD_SIZE
+                + (long) instructorCount * INSTRUCTOR_RECORD_SIZE
+                + (long) offeringCount * OFFERING_RECORD_SIZE
+                + 4L * (stringCount + 1)
+                + stringDataLength;
+        if (expected != buffer.capacity())
+            throw new IOException("Truncated snapshot, expected " + expected
+                    + " bytes but found " + buffer.capacity() + ": " + file);
+
+        CRC32 crc = new CRC32();
+        ByteBuffer body = buffer.duplicate();
+        body.position(HEADER_SIZE);
+        byte[] chunk = new byte[8192];
+        while (body.hasRemaining()) {
+            int count = Math.min(chunk.length, body.remaining());
+            body.get(chunk, 0, count);
+            crc.update(chunk, 0, count);
+        }
+        if ((int) crc.getValue() != buffer.getInt(CHECKSUM_OFFSET))
+            throw new IOException("Snapshot checksum mismatch: " + file);
+
+        return new CatalogSnapshot(buffer, courseCount, instructorCount, offeringCount, stringCount);
+    }
+
+    //********** FIELD ACCESS
+
+    int getCourseCount() {
+        return mCourseCount;
+    }
+
+    int getInstructorCount() {
+        return mInstructorCount;
+    }
+
+    int getOfferingCount() {
+        return mOfferingCount;
+    }
+
+    long getCourseId(int index) {
+        return mBuffer.getLong(courseRecord(index));
+    }
+
+    String getCourseAlpha(int index) {
+        return getString(mBuffer.getInt(courseRecord(index) + 8));
+    }
+
+    String getCourseNumber(int index) {
+        return getString(mBuffer.getInt(courseRecord(index) + 12));
+    }
+
+    String getCourseTitle(int index) {
+        return getString(mBuffer.getInt(courseRecord(index) + 16));
+    }
+
+    long getInstructorId(int index) {
+        return mBuffer.getLong(instructorRecord(index));
+    }
+
+    String getInstructorLastName(int index) {
+        return getString(mBuffer.getInt(instructorRecord(index) + 8));
+    }
+
+    String getInstructorFirstName(int index) {
+        return getString(mBuffer.getInt(instructorRecord(index) + 12));
+    }
+
+    String getInstructorEmail(int index) {
+        return getString(mBuffer.getInt(instructorRecord(index) + 16));
+    }
+
+    int getOfferingCRN(int index) {
+        return mBuffer.getInt(offeringRecord(index));
+    }
+
+    int getOfferingSemesterCode(int index) {
+        return mBuffer.getInt(offeringRecord(index) + 4);
+    }
+
+    int getOfferingCourseIndex(int index) {
+        return mBuffer.getInt(offeringRecord(index) + 8);
+    }
+
+    int getOfferingInstructorIndex(int index) {
+        return mBuffer.getInt(offeringRecord(index) + 12);
+    }
+
+    String getOfferingMeetingDays(int index) {
+        return getString(mBuffer.getInt(offeringRecord(index) + 16));
+    }
+
+    int getOfferingStartTime(int index) {
+        return mBuffer.getShort(offeringRecord(index) + 20);
+    }
+
+    int getOfferingEndTime(int index) {
+        return mBuffer.getShort(offeringRecord(index) + 22);
+    }
+
+    private int courseRecord(int index) {
+        if (index < 0 || index >= mCourseCount)
+            throw new IndexOutOfBoundsException("Course " + index + " of " + mCourseCount);
+        return HEADER_SIZE + index * COURSE_RECORD_SIZE;
+    }
+
+    private int instructorRecord(int index) {
+        if (index < 0 || index >= mInstructorCount)
+            throw new IndexOutOfBoundsException("Instructor " + index + " of " + mInstructorCount);
+        return mInstructorsOffset + index * INSTRUCTOR_RECORD_SIZE;
+    }
+
+    private int offeringRecord(int index) {
+        if (index < 0 || index >= mOfferingCount)
+            throw new IndexOutOfBoundsException("Offering " + index + " of " + mOfferingCount);
+        return mOfferingsOffset + index * OFFERING_RECORD_SIZE;
+    }
+
+    /**
+     * getString decodes a string of the string table the first time it is asked for and
+     * returns the same instance afterwards.
+     * @param id index into the string table, or -1 for null
+     * @return the string
+     */
+    String getString(int id) {
+        if (id < 0)
+            return null;
+        if (id >= mStringCount)
+            throw new IndexOutOfBoundsException("String " + id + " of " + mStringCount);
+        String value = mStrings[id];
+        if (value == null) {
+            int start = mBuffer.getInt(mStringIndexOffset + 4 * id);
+            int end = mBuffer.getInt(mStringIndexOffset + 4 * (id + 1));
+            byte[] bytes = new byte[end - start];
+            ByteBuffer data = mBuffer.duplicate();
+            data.position(mStringDataOffset + start);
+            data.get(bytes);
+            value = new String(bytes, UTF_8);
+            mStrings[id] = value;
+        }
+        return value;
+    }
+
+    //********** MODEL OBJECTS
+
+    /**
+     * getAllCourses builds a Course for every course record.
+     * @return List<Course>
+     */
+    List<Course> getAllCourses() {
+        List<Course> courses = new ArrayList<>(mCourseCount);
+        for (int i = 0; i < mCourseCount; i++)
+            courses.add(new Course(getCourseId(i), getCourseAlpha(i), getCourseNumber(i),
+                    getCourseTitle(i)));
+        return courses;
+    }
+
+    /**
+     * getAllInstructors builds an Instructor for every instructor record.
+     * @return List<Instructor>
+     */
+    List<Instructor> getAllInstructors() {
+        List<Instructor> instructors = new ArrayList<>(mInstructorCount);
+        for (int i = 0; i < mInstructorCount; i++)
+            instructors.add(new Instructor(getInstructorId(i), getInstructorLastName(i),
+                    getInstructorFirstName(i), getInstructorEmail(i)));
+        return instructors;
+    }
+
+    /**
+     * getAllOfferings builds an Offering for every offering record.  Offerings of the same
+     * course or instructor share one Course or Instructor object.
+     * @return List<Offering>
+     */
+    List<Offering> getAllOfferings() {
+        return offerings(null, -1, -1, false);
+    }
+
+    /**
+     * searchOfferings is the snapshot counterpart of DBHelper.searchOfferings: it scans the
+     * offering records and builds Offerings only for the ones matching every criterion.
+     * Like the join of DBHelper, it skips offerings whose course or instructor is missing.
+     * @param alpha subject alpha to match (case insensitive), or null for any
+     * @param semesterCode semester to match, or -1 for any
+     * @param instructorId id of the instructor to match, or -1 for any
+     * @return the matching Offerings
+     */
+    List<Offering> searchOfferings(String alpha, int semesterCode, long instructorId) {
+        return offerings(alpha, semesterCode, instructorId, true);
+    }
+
+    /**
+     * offerings builds the Offerings of the records matching the criteria.
+     * @param joinOnly true to skip records whose course or instructor is missing
+     */
+    private List<Offering> offerings(String alpha, int semesterCode, long instructorId,
+                                     boolean joinOnly) {
+        if (alpha != null)
+            alpha = alpha.trim();
+        Course[] courses = new Course[mCourseCount];
+        Instructor[] instructors = new Instructor[mInstructorCount];
+        List<Offering> offerings = new ArrayList<>();
+        for (int i = 0; i < mOfferingCount; i++) {
+            if (semesterCode != -1 && getOfferingSemesterCode(i) != semesterCode)
+                continue;
+            int courseIndex = getOfferingCourseIndex(i);
+            int instructorIndex = getOfferingInstructorIndex(i);
+            if (joinOnly && (courseIndex < 0 || instructorIndex < 0))
+                continue;
+            if (instructorId != -1 && (instructorIndex < 0
+                    || getInstructorId(instructorIndex) != instructorId))
+                continue;
+            if (alpha != null && (courseIndex < 0
+                    || !alpha.equalsIgnoreCase(getCourseAlpha(courseIndex))))
+                continue;
+
+            Course course = null;
+            if (courseIndex >= 0) {
+                course = courses[courseIndex];
+                if (course == null) {
+                    course = new Course(getCourseId(courseIndex), getCourseAlpha(courseIndex),
+                            getCourseNumber(courseIndex), getCourseTitle(courseIndex));
+                    courses[courseIndex] = course;
+                }
+            }
+            Instructor instructor = null;
+            if (instructorIndex >= 0) {
+                instructor = instructors[instructorIndex];
+                if (instructor == null) {
+                    instructor = new Instructor(getInstructorId(instructorIndex),
+                            getInstructorLastName(instructorIndex),
+                            getInstructorFirstName(instructorIndex),
+                            getInstructorEmail(instructorIndex));
+                    instructors[instructorIndex] = instructor;
+                }
+            }
+            offerings.add(new Offering(getOfferingCRN(i), getOfferingSemesterCode(i), course,
+                    instructor, getOfferingMeetingDays(i), getOfferingStartTime(i),
+                    getOfferingEndTime(i)));
+        }
+        return offerings;
+    }
+}
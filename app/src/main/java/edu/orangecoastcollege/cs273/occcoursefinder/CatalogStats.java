@@ -0,0 +1,164 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import java.util.HashMap;
+
+/**
+ * The <code>CatalogStats</code> class is an in-memory summary of the Offerings table.
+ * It holds the number of offerings per course, per instructor, per semester and per
+ * subject alpha, so facet counts such as "sections of CS A170 this term" are a single
+ * hash lookup instead of a getAllOfferings() and a loop.
+ *
+ * DBHelper keeps the summary current: its add, update and delete methods adjust the counts
+ * incrementally and the csv imports rebuild it from the database with one GROUP BY query.
+ *
+ * Alpha counts are derived from the course each offering belongs to, so the summary also
+ * remembers the alpha of every course it has been told about.
+ */
+class CatalogStats {
+
+    private final HashMap<Long, Integer> mCountByCourse = new HashMap<>();
+    private final HashMap<Long, Integer> mCountByInstructor = new HashMap<>();
+    private final HashMap<Integer, Integer> mCountBySemester = new HashMap<>();
+    private final HashMap<String, Integer> mCountByAlpha = new HashMap<>();
+    private final HashMap<Long, String> mCourseAlphas = new HashMap<>();
+    private int mOfferingCount;
+    private boolean mLoaded;
+
+    /**
+     * isLoaded returns true once the summary has been built from the database.
+     * Until then DBHelper does not bother maintaining it incrementally.
+     * @return true if the counts reflect the database
+     */
+    synchronized boolean isLoaded() {
+        return mLoaded;
+    }
+
+    synchronized void setLoaded(boolean loaded) {
+        mLoaded = loaded;
+    }
+
+    /**
+     * clear forgets every count and every course alpha, and marks the summary as not loaded.
+     */
+    synchronized void clear() {
+        mCountByCourse.clear();
+        mCountByInstructor.clear();
+        mCountBySemester.clear();
+        mCountByAlpha.clear();
+        mCourseAlphas.clear();
+        mOfferingCount = 0;
+        mLoaded = false;
+    }
+
+    //********** COURSES
+
+    /**
+     * putCourse records (or changes) the alpha of a course.  Offerings already counted for
+     * that course are moved from the old alpha to the new one.
+     * @param courseId id of the course
+     * @param alpha subject alpha of the course, e.g. CS
+     */
+    synchronized void putCourse(long courseId, String alpha) {
+        String previous = mCourseAlphas.put(courseId, alpha);
+        int offerings = get(mCountByCourse, courseId);
+        if (previous != null)
+            adjust(mCountByAlpha, previous, -offerings);
+        if (alpha != null)
+            adjust(mCountByAlpha, alpha, offerings);
+    }
+
+    /**
+     * removeCourse forgets the alpha of a deleted course.  Its offerings stay counted per
+     * course, instructor and semester because the Offerings rows are not deleted with it.
+     * @param courseId id of the course
+     */
+    synchronized void removeCourse(long courseId) {
+        String previous = mCourseAlphas.remove(courseId);
+        if (previous != null)
+            adjust(mCountByAlpha, previous, -get(mCountByCourse, courseId));
+    }
+
+    /**
+     * clearCourses forgets the alpha of every course, as after deleteAllCourses.
+     */
+    synchronized void clearCourses() {
+        mCourseAlphas.clear();
+        mCountByAlpha.clear();
+    }
+
+    //********** OFFERINGS
+
+    /**
+     * addOfferings counts one or more offerings sharing a semester, course and instructor.
+     * @param semesterCode semester of the offerings
+     * @param courseId id of the course offered
+     * @param instructorId id of the instructor teaching
+     * @param count number of offerings (negative to remove)
+     */
+    synchronized void addOfferings(int semesterCode, long courseId, long instructorId, int count) {
+        adjust(mCountByCourse, courseId, count);
+        adjust(mCountByInstructor, instructorId, count);
+        adjust(mCountBySemester, semesterCode, count);
+        String alpha = mCourseAlphas.get(courseId);
+        if (alpha != null)
+            adjust(mCountByAlpha, alpha, count);
+        mOfferingCount += count;
+    }
+
+    void addOffering(int semesterCode, long courseId, long instructorId) {
+        addOfferings(semesterCode, courseId, instructorId, 1);
+    }
+
+    void removeOffering(int semesterCode, long courseId, long instructorId) {
+        addOfferings(semesterCode, courseId, instructorId, -1);
+    }
+
+    /**
+     * clearOfferings resets every offering count but keeps the course alphas,
+     * as after deleteAllOfferings.
+     */
+    synchronized void clearOfferings() {
+        mCountByCourse.clear();
+        mCountByInstructor.clear();
+        mCountBySemester.clear();
+        mCountByAlpha.clear();
+        mOfferingCount = 0;
+    }
+
+    //********** READS
+
+    synchronized int getOfferingCount() {
+        return mOfferingCount;
+    }
+
+    synchronized int getOfferingCountForCourse(long courseId) {
+        return get(mCountByCourse, courseId);
+    }
+
+    synchronized int getOfferingCountForInstructor(long instructorId) {
+        return get(mCountByInstructor, instructorId);
+    }
+
+    synchronized int getOfferingCountForSemester(int semesterCode) {
+        return get(mCountBySemester, semesterCode);
+    }
+
+    synchronized int getOfferingCountForAlpha(String alpha) {
+        return get(mCountByAlpha, alpha);
+    }
+
+    private static <K> int get(HashMap<K, Integer> counts, K key) {
+        Integer count = counts.get(key);
+        return (count == null) ? 0 : count;
+    }
+
+    private static <K> void adjust(HashMap<K, Integer> counts, K key, int delta) {
+        if (delta == 0)
+            return;
+        int count = get(counts, key) + delta;
+        if (count <= 0)
+            counts.remove(key);
+        else
+            counts.put(key, count);
+    }
+}
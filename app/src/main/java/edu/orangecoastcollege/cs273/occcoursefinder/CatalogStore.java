@@ -0,0 +1,81 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import java.util.List;
+
+/**
+ * CatalogStore is the set of Course, Instructor and Offering operations the app needs from
+ * its storage, independent of how the catalog is stored.
+ *
+ * There are two engines: DBHelper, which persists the catalog in SQLite, and
+ * InMemoryCatalogStore, which keeps it in hash maps for read-only kiosks, plain JVM tests
+ * and benchmarks.  Both are checked by the same CatalogStoreConformanceTest, so they agree
+ * on the details below.
+ *
+ * Ids: a Course or Instructor added with an id of 1 or more keeps that id (adding a second
+ * one with the same id does nothing); one added with an id of -1 gets the next free id.
+ * Lookups of ids or CRNs that do not exist return null.
+ * Offerings are identified by CRN; updateOffering and deleteOffering affect every offering
+ * with the given CRN.
+ */
+interface CatalogStore {
+
+    //********** COURSES
+
+    void addCourse(Course course);
+
+    List<Course> getAllCourses();
+
+    Course getCourse(long id);
+
+    void updateCourse(Course course);
+
+    void deleteCourse(Course course);
+
+    void deleteAllCourses();
+
+    //********** INSTRUCTORS
+
+    void addInstructor(Instructor instructor);
+
+    List<Instructor> getAllInstructors();
+
+    Instructor getInstructor(long id);
+
+    void updateInstructor(Instructor instructor);
+
+    void deleteInstructor(Instructor instructor);
+
+    void deleteAllInstructors();
+
+    //********** OFFERINGS
+
+    void addOffering(int crn, int semesterCode, long courseId, long instructorId);
+
+    void addOffering(int crn, int semesterCode, long courseId, long instructorId,
+                     String meetingDays, int startTime, int endTime);
+
+    /**
+     * getAllOfferings returns every offering.  An offering whose course or instructor does
+     * not exist is returned with a null Course or Instructor.
+     * @return List<Offering>
+     */
+    List<Offering> getAllOfferings();
+
+    Offering getOffering(long crn);
+
+    void updateOffering(Offering offering);
+
+    void deleteOffering(Offering offering);
+
+    void deleteAllOfferings();
+
+    /**
+     * searchOfferings returns the offerings matching every given criterion.  Offerings whose
+     * course or instructor does not exist never match.
+     * @param alpha subject alpha to match (case insensitive), or null for any
+     * @param semesterCode semester to match, or -1 for any
+     * @param instructorId id of the instructor to match, or -1 for any
+     * @return the matching Offerings
+     */
+    List<Offering> searchOfferings(String alpha, int semesterCode, long instructorId);
+}
@@ -0,0 +1,155 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * CatalogValidator is the validation stage of a whole-catalog import.  It parses the
+ * courses, instructors and offerings csv files in that order, remembering every course id,
+ * instructor id and CRN in a LongHashSet, and checks each row as it goes by:
+ * - malformed rows, including course and instructor ids of 0 or below, which the database
+ *   would replace by ids of its own that no offering refers to
+ * - course and instructor ids that appear twice
+ * - offerings whose course_id or instructor_id is not in the courses or instructors file
+ * - CRNs that appear twice
+ *
+ * Every problem goes into an ImportReport.  Valid rows are handed to a Sink as soon as they
+ * are checked, so the files are read once and never held in memory; the sink is expected to
+ * write them inside a transaction that is committed only if the report ends up valid.
+ */
+class CatalogValidator {
+
+    /**
+     * Sink receives the rows that passed validation.
+     */
+    interface Sink {
+        /**
+         * @return false if the course could not be stored, e.g. because its id is taken
+         */
+        boolean course(Course course);
+
+        /**
+         * @return false if the instructor could not be stored, e.g. because its id is taken
+         */
+        boolean instructor(Instructor instructor);
+
+        void offering(CatalogCsv.OfferingRow row);
+    }
+
+    private final StringPool mStrings;
+    private final ImportReport mReport = new ImportReport();
+    private final LongHashSet mCourseIds = new LongHashSet(1024);
+    private final LongHashSet mInstructorIds = new LongHashSet(1024);
+    private final LongHashSet mCrns = new LongHashSet(16384);
+
+    /**
+     * CatalogValidator is a parameterized constructor.
+     * @param strings pool to deduplicate the parsed strings, or null
+     */
+    CatalogValidator(StringPool strings) {
+        mStrings = strings;
+    }
+
+    /**
+     * getReport returns the report of everything read so far.
+     * @return the ImportReport
+     */
+    ImportReport getReport() {
+        return mReport;
+    }
+
+    /**
+     * readCourses reads and checks a courses csv file.
+     * @param file name of the file, for the report
+     * @param reader the csv text
+     * @param sink where valid courses go, or null to only validate
+     * @throws IOException if the file cannot be read
+     */
+    void readCourses(String file, BufferedReader reader, Sink sink) throws IOException {
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty())
+                continue;
+            Course course = CatalogCsv.parseCourse(line, mStrings);
+            if (course == null || course.getId() <= 0) {
+                mReport.addProblem(ImportReport.Kind.MALFORMED_ROW, file, lineNumber, line);
+            } else if (!mCourseIds.add(course.getId())
+                    || (sink != null && !sink.course(course))) {
+                mReport.addProblem(ImportReport.Kind.DUPLICATE_COURSE_ID, file, lineNumber, line);
+            } else {
+                mReport.countCourse();
+            }
+        }
+    }
+
+    /**
+     * readInstructors reads and checks an instructors csv file.
+     * @param file name of the file, for the report
+     * @param reader the csv text
+     * @param sink where valid instructors go, or null to only validate
+     * @throws IOException if the file cannot be read
+     */
+    void readInstructors(String file, BufferedReader reader, Sink sink) throws IOException {
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty())
+                continue;
+            Instructor instructor = CatalogCsv.parseInstructor(line, mStrings);
+            if (instructor == null || instructor.getId() <= 0) {
+                mReport.addProblem(ImportReport.Kind.MALFORMED_ROW, file, lineNumber, line);
+            } else if (!mInstructorIds.add(instructor.getId())
+                    || (sink != null && !sink.instructor(instructor))) {
+                mReport.addProblem(ImportReport.Kind.DUPLICATE_INSTRUCTOR_ID, file, lineNumber,
+                        line);
+            } else {
+                mReport.countInstructor();
+            }
+        }
+    }
+
+    /**
+     * readOfferings reads and checks an offerings csv file against the courses and
+     * instructors read before it.
+     * @param file name of the file, for the report
+     * @param reader the csv text
+     * @param sink where valid offerings go, or null to only validate
+     * @throws IOException if the file cannot be read
+     */
+    void readOfferings(String file, BufferedReader reader, Sink sink) throws IOException {
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty())
+                continue;
+            CatalogCsv.OfferingRow row = CatalogCsv.parseOffering(line, mStrings);
+            if (row == null) {
+                mReport.addProblem(ImportReport.Kind.MALFORMED_ROW, file, lineNumber, line);
+                continue;
+            }
+            boolean valid = true;
+            if (!mCrns.add(row.crn)) {
+                mReport.addProblem(ImportReport.Kind.DUPLICATE_CRN, file, lineNumber, line);
+                valid = false;
+            }
+            if (!mCourseIds.contains(row.courseId)) {
+                mReport.addProblem(ImportReport.Kind.UNKNOWN_COURSE_ID, file, lineNumber, line);
+                valid = false;
+            }
+            if (!mInstructorIds.contains(row.instructorId)) {
+                mReport.addProblem(ImportReport.Kind.UNKNOWN_INSTRUCTOR_ID, file, lineNumber,
+                        line);
+                valid = false;
+            }
+            if (valid) {
+                if (sink != null)
+                    sink.offering(row);
+                mReport.countOffering();
+            }
+        }
+    }
+}
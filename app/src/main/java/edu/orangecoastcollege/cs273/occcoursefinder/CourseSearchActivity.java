@@ -1,10 +1,17 @@
 package edu.orangecoastcollege.cs273.occcoursefinder;
 
+import android.content.SharedPreferences;
 import android.os.Bundle;
+import android.os.StrictMode;
+import android.os.SystemClock;
 import android.support.v7.app.AppCompatActivity;
 import android.util.Log;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * OCCCourseFinder is a useful app that teaches how to take data from a csv file
@@ -19,45 +26,193 @@ import java.util.List;
  *
  * Then we populate three Lists, of Courses, Instructors and Offerings respectively.
  * Each list is then printed to the logcat.
+ *
+ * The three files are imported together and only if every row is valid; the ImportReport
+ * of the import is printed to the logcat.
+ *
+ * After an import the catalog is also saved as a binary CatalogSnapshot.  On later starts
+ * the snapshot is memory-mapped instead, skipping the delete, the imports and the database
+ * reads entirely.  The snapshot file name carries the app version, so an update that ships
+ * new csv files imports them again.  DBHelper deletes the snapshot on any write to the
+ * catalog; the next start then reads the database, which is only re-imported when this
+ * version has not imported it yet, and saves a new snapshot of it.
+ *
+ * The snapshot, the database and the imports are all on disk, so onCreate only sets the
+ * content view and leaves them to a "catalog-load" thread; the main thread never touches the
+ * catalog.  Each phase of that load is a "startup:" trace section, and the time each one
+ * took is logged as a single "Startup timeline:" line that can be compared build over build.
+ * Debug builds also turn on StrictMode, which with DBTrace's guard reports any disk access
+ * that finds its way back onto the main thread.
  */
 public class CourseSearchActivity extends AppCompatActivity {
 
     private DBHelper db;
     private static final String TAG = "OCC Course Finder";
+    private static final String PREF_IMPORTED_VERSION = "imported_version";
+
+    private final CountDownLatch mLoaded = new CountDownLatch(1);
+    private final StringBuilder mTimeline = new StringBuilder();
+    private String mPhaseName;
+    private long mPhaseStart;
 
     /**
-     * In onCreate we set the content view.
-     * Delete any previous database, import the data from the three csv files using their
-     * respective methods in our DBHelper object, db.
-     *
-     * Then we populate three Lists, of Courses, Instructors and Offerings respectively.
-     * Each list is then printed to the logcat.
+     * In onCreate we set the content view, then start the thread that loads the catalog.
      * @param savedInstanceState
      */
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        setContentView(R.layout.activity_course_search);
+        if (BuildConfig.DEBUG)
+            enableStrictMode();
+        DBTrace.beginSection("CourseSearchActivity.onCreate");
+        try {
+            setContentView(R.layout.activity_course_search);
+        } finally {
+            DBTrace.endSection();
+        }
+
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    loadCatalog();
+                } finally {
+                    mLoaded.countDown();
+                }
+            }
+        }, "catalog-load").start();
+    }
+
+    /**
+     * loadCatalog deletes any previous database, imports the data from the three csv files
+     * using their respective methods in our DBHelper object, db.
+     *
+     * Then we populate three Lists, of Courses, Instructors and Offerings respectively.
+     * Each list is then printed to the logcat.
+     *
+     * If a valid snapshot of this app version exists, the Lists are read from it instead.
+     * Without one, the database is only deleted and imported again if this app version has
+     * not imported it before; otherwise it is read as is and a new snapshot saved.
+     *
+     * It runs on the "catalog-load" thread, never on the main thread.
+     */
+    private void loadCatalog() {
+        DBTrace.beginSection("CourseSearchActivity.loadCatalog");
+        long start = SystemClock.elapsedRealtime();
+        try {
+            beginPhase("openSnapshot");
+            File snapshotFile = DBHelper.getSnapshotFile(this);
+            CatalogSnapshot snapshot = null;
+            try {
+                snapshot = CatalogSnapshot.open(snapshotFile);
+            } catch (IOException e) {
+                Log.i(TAG, "No usable catalog snapshot: " + e.getMessage());
+            }
+            endPhase();
+
+            db = new DBHelper(this);
+            if (snapshot == null) {
+                SharedPreferences preferences = getPreferences(MODE_PRIVATE);
+                // The database is kept, with any changes made since, once this version imported.
+                boolean imported =
+                        preferences.getInt(PREF_IMPORTED_VERSION, -1) == BuildConfig.VERSION_CODE
+                        && getDatabasePath(DBHelper.DATABASE_NAME).exists();
+                if (!imported) {
+                    beginPhase("deleteDatabase");
+                    DBHelper.deleteCatalog(this);
+                    endPhase();
 
-        deleteDatabase(DBHelper.DATABASE_NAME);
-        db = new DBHelper(this);
-        db.importCoursesFromCSV("courses.csv");
-        db.importInstructorsFromCSV("instructors.csv");
-        //TODO: Create the method importOfferingsFromCSV, then use it in this activity.
-        db.importOfferingsFromCSV("offerings.csv");
+                    beginPhase("import");
+                    //TODO: Create the method importOfferingsFromCSV, then use it in this activity.
+                    ImportReport report = db.importCatalogFromCSV("courses.csv",
+                            "instructors.csv", "offerings.csv");
+                    Log.i(TAG, report.toString());
+                    endPhase();
 
-        List<Course> allCourses = db.getAllCourses();
-        for (Course course : allCourses)
-            Log.i(TAG, course.toString());
+                    imported = report.isValid();
+                    if (imported)
+                        preferences.edit().putInt(PREF_IMPORTED_VERSION, BuildConfig.VERSION_CODE)
+                                .apply();
+                }
 
-        List<Instructor> allInstructors = db.getAllInstructors();
-        for (Instructor instructor : allInstructors)
-            Log.i(TAG, instructor.toString());
+                if (imported) {
+                    beginPhase("writeSnapshot");
+                    db.writeSnapshot();
+                    endPhase();
+                }
+            }
 
-        //TODO: Get all the offerings from the database, then print them out to the Log
-        List<Offering> allOfferings = db.getAllOfferings();
-        for (Offering offering : allOfferings)
-            Log.i(TAG, offering.toString());
+            beginPhase("read");
+            List<Course> allCourses =
+                    (snapshot != null) ? snapshot.getAllCourses() : db.getAllCourses();
+            List<Instructor> allInstructors =
+                    (snapshot != null) ? snapshot.getAllInstructors() : db.getAllInstructors();
+            //TODO: Get all the offerings from the database, then print them out to the Log
+            List<Offering> allOfferings =
+                    (snapshot != null) ? snapshot.getAllOfferings() : db.getAllOfferings();
+            endPhase();
 
+            beginPhase("log");
+            for (Course course : allCourses)
+                Log.i(TAG, course.toString());
+            for (Instructor instructor : allInstructors)
+                Log.i(TAG, instructor.toString());
+            for (Offering offering : allOfferings)
+                Log.i(TAG, offering.toString());
+            endPhase();
+        } finally {
+            DBTrace.endSection();
+        }
+
+        mTimeline.append(" total=").append(SystemClock.elapsedRealtime() - start).append("ms");
+        Log.i(TAG, "Startup timeline:" + mTimeline);
+    }
+
+    /**
+     * awaitCatalog waits for the "catalog-load" thread started by onCreate to finish.
+     * @param timeout how long to wait
+     * @param unit the unit of timeout
+     * @return true if the catalog was loaded (or failed to load) in time, false otherwise
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean awaitCatalog(long timeout, TimeUnit unit) throws InterruptedException {
+        return mLoaded.await(timeout, unit);
+    }
+
+    /**
+     * beginPhase starts a startup phase, which is both a "startup:" trace section and an
+     * entry of the timeline logged at the end of loadCatalog.
+     * @param name the name of the phase
+     */
+    private void beginPhase(String name) {
+        DBTrace.beginSection("startup:" + name);
+        mPhaseName = name;
+        mPhaseStart = SystemClock.elapsedRealtime();
+    }
+
+    /**
+     * endPhase ends the phase started by the last beginPhase and records its duration.
+     */
+    private void endPhase() {
+        long millis = SystemClock.elapsedRealtime() - mPhaseStart;
+        DBTrace.endSection();
+        mTimeline.append(' ').append(mPhaseName).append('=').append(millis).append("ms");
+    }
+
+    /**
+     * enableStrictMode makes debug builds log disk access on the main thread and leaked
+     * cursors, databases and streams, alongside DBTrace's own guard.
+     */
+    private static void enableStrictMode() {
+        StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                .detectDiskReads()
+                .detectDiskWrites()
+                .penaltyLog()
+                .build());
+        StrictMode.setVmPolicy(new StrictMode.VmPolicy.Builder()
+                .detectLeakedSqlLiteObjects()
+                .detectLeakedClosableObjects()
+                .penaltyLog()
+                .build());
     }
 }
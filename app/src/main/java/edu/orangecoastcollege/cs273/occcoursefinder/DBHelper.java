@@ -4,16 +4,24 @@ import android.content.ContentValues;
 import android.content.Context;
 import android.content.res.AssetManager;
 import android.database.Cursor;
+import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 import android.util.Log;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 
 /**
@@ -21,39 +29,96 @@ import java.util.List;
  * to persisting data.
  *
  * The importCoursesFromCSV, importInstructorsFromCSV and importOfferingsFromCSV methods
- * convert the data from CSV files into rows in tables of the  SQLite database.
+ * convert the data from CSV files into rows in tables of the  SQLite database.  The files
+ * may be gzip compressed (see CatalogCodec).  importCatalogFromCSV imports all three
+ * in one transaction that is committed only if a CatalogValidator finds every row valid.
  *
  * There are also getter and setter functions for the various object types,
- * Courses, Instructors and Offerings, being stored in our OCC database.
+ * Courses, Instructors and Offerings, being stored in our OCC database.  These make up the
+ * SQLite engine of the CatalogStore interface.
+ *
+ * Every string read from a cursor or a csv row goes through a StringPool, so the
+ * thousands of Course and Instructor objects built by getAllOfferings share one instance
+ * of each alpha, title, name and email instead of one copy per row.  The pool is emptied
+ * whenever rows leave the catalog in bulk (deleteAll*, archiveOfferingsBefore, deleteArchive
+ * and deleteCatalog), so it never holds on to the strings of rows that are gone.
+ *
+ * DBHelper also keeps a CatalogStats summary of the Offerings table (counts per course,
+ * instructor, semester and alpha).  It is built from the database on first use, adjusted by
+ * every add, update and delete below, and rebuilt at the end of each csv import.  It is
+ * also rebuilt on next use when a table's write generation (below) moves for a write that
+ * this DBHelper did not make, so every instance sees the writes of the others.
+ *
+ * Each table has a write generation that is bumped by every add, update, delete and import,
+ * and by every write made through CatalogContentProvider.
+ * searchOfferings caches its results in a QueryCache stamped with those generations, so a
+ * repeated search is answered from memory until one of the tables it reads is written.
+ *
+ * Old semesters can be moved to a separate archive database with archiveOfferingsBefore,
+ * keeping the Offerings table small; the archive is attached only while it is read or
+ * written, by one thread at a time, and the main database is vacuumed after each move.
+ *
+ * exportOfferings streams a filtered join of the three tables to csv or JSON without
+ * loading it into memory.
+ *
+ * Each operation below runs in a DBTrace section named after it (e.g.
+ * "DBHelper.getAllOfferings", or "import:offerings.csv" for a phase of an import), and
+ * every database or asset access is checked by DBTrace's main thread guard.
  */
-class DBHelper extends SQLiteOpenHelper {
+class DBHelper extends SQLiteOpenHelper implements CatalogStore {
 
     private Context mContext;
+    private final StringPool mStrings = new StringPool();
+    private final CatalogStats mStats = new CatalogStats();
+
+    private static final int SEARCH_CACHE_SIZE = 64;
+    private final QueryCache<List<Offering>> mSearchCache = new QueryCache<>(SEARCH_CACHE_SIZE);
+
+    // WRITE GENERATION OF EACH TABLE, SHARED BY EVERY DBHelper IN THE PROCESS
+    private static final HashMap<String, Long> sGenerations = new HashMap<>();
+    // Search generation that mStats is current with; any other value means another DBHelper
+    // (or CatalogContentProvider) wrote since, and the stats must be rebuilt
+    private volatile long mStatsGeneration = -1;
+    // False only while the snapshot file is known not to exist, to save a delete per write
+    private static volatile boolean sSnapshotMayExist = true;
+    // Number of deleteCatalog calls, and how many this DBHelper's connection has seen
+    private static volatile int sCatalogDeletions;
+    private int mCatalogDeletions = sCatalogDeletions;
 
     //TASK: DEFINE THE DATABASE VERSION AND NAME  (DATABASE CONTAINS MULTIPLE TABLES)
     static final String DATABASE_NAME = "OCC";
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = 2;
+
+    // Cold database holding the offerings of archived semesters, attached only when used
+    static final String ARCHIVE_DATABASE_NAME = "OCC_archive";
+    private static final String ARCHIVE_ALIAS = "archive";
+    // Held from attaching the archive to detaching it, so two threads never attach it at once
+    private static final Object sArchiveLock = new Object();
 
     //TASK: DEFINE THE FIELDS (COLUMN NAMES) FOR THE COURSES TABLE
-    private static final String COURSES_TABLE = "Courses";
-    private static final String COURSES_KEY_FIELD_ID = "_id";
-    private static final String FIELD_ALPHA = "alpha";
-    private static final String FIELD_NUMBER = "number";
-    private static final String FIELD_TITLE = "title";
+    // The column names are published to other processes in CatalogContract
+    static final String COURSES_TABLE = "Courses";
+    private static final String COURSES_KEY_FIELD_ID = CatalogContract.Courses._ID;
+    private static final String FIELD_ALPHA = CatalogContract.Courses.ALPHA;
+    private static final String FIELD_NUMBER = CatalogContract.Courses.NUMBER;
+    private static final String FIELD_TITLE = CatalogContract.Courses.TITLE;
 
     //TASK: DEFINE THE FIELDS (COLUMN NAMES) FOR THE INSTRUCTORS TABLE
-    private static final String INSTRUCTORS_TABLE = "Instructors";
-    private static final String INSTRUCTORS_KEY_FIELD_ID = "_id";
-    private static final String FIELD_FIRST_NAME = "first_name";
-    private static final String FIELD_LAST_NAME = "last_name";
-    private static final String FIELD_EMAIL = "email";
+    static final String INSTRUCTORS_TABLE = "Instructors";
+    private static final String INSTRUCTORS_KEY_FIELD_ID = CatalogContract.Instructors._ID;
+    private static final String FIELD_FIRST_NAME = CatalogContract.Instructors.FIRST_NAME;
+    private static final String FIELD_LAST_NAME = CatalogContract.Instructors.LAST_NAME;
+    private static final String FIELD_EMAIL = CatalogContract.Instructors.EMAIL;
 
     //TASK: DEFINE THE FIELDS (COLUMN NAMES) FOR THE OFFERINGS TABLE
-    private static final String OFFERINGS_TABLE = "Offerings";
-    private static final String FIELD_CRN = "crn";
-    private static final String FIELD_SEMESTER_CODE = "semester_code";
-    private static final String FIELD_COURSE_ID = "course_id";
-    private static final String FIELD_INSTRUCTOR_ID = "instructor_id";
+    static final String OFFERINGS_TABLE = "Offerings";
+    private static final String FIELD_CRN = CatalogContract.Offerings.CRN;
+    private static final String FIELD_SEMESTER_CODE = CatalogContract.Offerings.SEMESTER_CODE;
+    private static final String FIELD_COURSE_ID = CatalogContract.Offerings.COURSE_ID;
+    private static final String FIELD_INSTRUCTOR_ID = CatalogContract.Offerings.INSTRUCTOR_ID;
+    private static final String FIELD_MEETING_DAYS = CatalogContract.Offerings.MEETING_DAYS;
+    private static final String FIELD_START_TIME = CatalogContract.Offerings.START_TIME;
+    private static final String FIELD_END_TIME = CatalogContract.Offerings.END_TIME;
 
     /**
      * DBHelper is a parameterized constructor that accepts a Context argument.
@@ -99,6 +164,9 @@ class DBHelper extends SQLiteOpenHelper {
                 + FIELD_SEMESTER_CODE + " INTEGER, "
                 + FIELD_COURSE_ID + " INTEGER, "
                 + FIELD_INSTRUCTOR_ID + " INTEGER, "
+                + FIELD_MEETING_DAYS + " TEXT, "
+                + FIELD_START_TIME + " INTEGER, "
+                + FIELD_END_TIME + " INTEGER, "
                 + "FOREIGN KEY ( " + FIELD_COURSE_ID
                 + " ) REFERENCES " + COURSES_TABLE + " ( " + COURSES_KEY_FIELD_ID + " ), "
                 + "FOREIGN KEY ( " + FIELD_INSTRUCTOR_ID
@@ -127,30 +195,444 @@ class DBHelper extends SQLiteOpenHelper {
         onCreate(database);
     }
 
+    /**
+     * getWritableDatabase opens the database for writing, after checking with DBTrace that
+     * this is not the main thread.
+     * @return the database
+     */
+    @Override
+    public SQLiteDatabase getWritableDatabase() {
+        DBTrace.checkNotMainThread("getWritableDatabase");
+        closeIfDeleted();
+        return super.getWritableDatabase();
+    }
+
+    /**
+     * getReadableDatabase opens the database for reading, after checking with DBTrace that
+     * this is not the main thread.
+     * @return the database
+     */
+    @Override
+    public SQLiteDatabase getReadableDatabase() {
+        DBTrace.checkNotMainThread("getReadableDatabase");
+        closeIfDeleted();
+        return super.getReadableDatabase();
+    }
+
+    /**
+     * closeIfDeleted closes a connection left open across deleteCatalog, such as the one of
+     * CatalogContentProvider, which would otherwise keep using the deleted file, and empties
+     * the StringPool of the deleted catalog's strings.
+     */
+    private synchronized void closeIfDeleted() {
+        int deletions = sCatalogDeletions;
+        if (deletions != mCatalogDeletions) {
+            close();
+            mStrings.clear();
+            mCatalogDeletions = deletions;
+        }
+    }
+
+    /**
+     * getStringPool returns the pool used to deduplicate strings read by this DBHelper.
+     * @return the StringPool of this DBHelper
+     */
+    StringPool getStringPool() {
+        return mStrings;
+    }
+
+    //********** CATALOG STATISTICS
+
+    /**
+     * getCatalogStats returns the summary of offering counts, building it from the
+     * database the first time it is requested, and again whenever the tables were written
+     * by someone other than this DBHelper.  Reads from the returned object are O(1).
+     * @return the CatalogStats of this DBHelper
+     */
+    public CatalogStats getCatalogStats() {
+        if (!mStats.isLoaded() || mStatsGeneration != getSearchGeneration())
+            rebuildStats();
+        return mStats;
+    }
+
+    /**
+     * rebuildStats recomputes the CatalogStats summary from scratch: one query for the alpha
+     * of every course and one GROUP BY query counting offerings per semester, course and
+     * instructor.
+     */
+    void rebuildStats() {
+        DBTrace.beginSection("DBHelper.rebuildStats");
+        try {
+            SQLiteDatabase database = this.getReadableDatabase();
+            synchronized (mStats) {
+                mStatsGeneration = getSearchGeneration();
+                mStats.clear();
+                Cursor cursor = database.query(
+                        COURSES_TABLE,
+                        new String[]{COURSES_KEY_FIELD_ID, FIELD_ALPHA},
+                        null, null, null, null, null);
+                while (cursor.moveToNext())
+                    mStats.putCourse(cursor.getLong(0), mStrings.intern(cursor.getString(1)));
+                cursor.close();
+
+                cursor = database.query(
+                        OFFERINGS_TABLE,
+                        new String[]{FIELD_SEMESTER_CODE, FIELD_COURSE_ID, FIELD_INSTRUCTOR_ID, "COUNT(*)"},
+                        null, null,
+                        FIELD_SEMESTER_CODE + ", " + FIELD_COURSE_ID + ", " + FIELD_INSTRUCTOR_ID,
+                        null, null);
+                while (cursor.moveToNext())
+                    mStats.addOfferings(cursor.getInt(0), cursor.getLong(1), cursor.getLong(2),
+                            cursor.getInt(3));
+                cursor.close();
+                mStats.setLoaded(true);
+            }
+            database.close();
+        } finally {
+            DBTrace.endSection();
+        }
+    }
+
+    /**
+     * uncountOfferings removes the offerings currently stored under a CRN from the
+     * CatalogStats summary, ahead of them being updated or deleted.
+     * @param db an open database reference
+     * @param crn the CRN of the offerings about to change
+     */
+    private void uncountOfferings(SQLiteDatabase db, int crn) {
+        if (!mStats.isLoaded())
+            return;
+        Cursor cursor = db.query(
+                OFFERINGS_TABLE,
+                new String[]{FIELD_SEMESTER_CODE, FIELD_COURSE_ID, FIELD_INSTRUCTOR_ID},
+                FIELD_CRN + " = ?",
+                new String[]{String.valueOf(crn)},
+                null, null, null);
+        while (cursor.moveToNext())
+            mStats.removeOffering(cursor.getInt(0), cursor.getLong(1), cursor.getLong(2));
+        cursor.close();
+    }
+
+    //********** WRITE GENERATIONS AND SEARCH
+
+    /**
+     * bumpGeneration marks a table as written, invalidating any cached query
+     * that read from it.
+     * @param table name of the table that was written
+     */
+    static void bumpGeneration(String table) {
+        synchronized (sGenerations) {
+            sGenerations.put(table, getGeneration(table) + 1);
+        }
+    }
+
+    /**
+     * written bumps the generation of a table this DBHelper has just written and, where
+     * needed, adjusted its CatalogStats for.  The stats remain current only if nobody else
+     * bumped a generation since they were last brought up to date; otherwise the next
+     * getCatalogStats rebuilds them.
+     * @param table name of the table that was written
+     */
+    private void written(String table) {
+        synchronized (sGenerations) {
+            boolean current = mStatsGeneration == getSearchGeneration();
+            bumpGeneration(table);
+            if (current)
+                mStatsGeneration = getSearchGeneration();
+        }
+        deleteSnapshot();
+    }
+
+    /**
+     * tableWritten records a write made to a table without going through this DBHelper's
+     * methods, e.g. by CatalogContentProvider.  It bumps the table's generation, so cached
+     * searches and the CatalogStats of every DBHelper are refreshed, and deletes the snapshot.
+     * @param table name of the table that was written
+     */
+    void tableWritten(String table) {
+        bumpGeneration(table);
+        deleteSnapshot();
+    }
+
+    /**
+     * getGeneration returns the number of writes made to a table so far in this process.
+     * @param table name of the table
+     * @return the write generation of the table
+     */
+    static long getGeneration(String table) {
+        synchronized (sGenerations) {
+            Long generation = sGenerations.get(table);
+            return (generation == null) ? 0L : generation;
+        }
+    }
+
+    /**
+     * getSearchGeneration combines the generations of the three tables read by
+     * searchOfferings.  Generations only ever grow, so the sum changes whenever any
+     * one of them is bumped.
+     * @return the combined write generation
+     */
+    private static long getSearchGeneration() {
+        return getGeneration(COURSES_TABLE)
+                + getGeneration(INSTRUCTORS_TABLE)
+                + getGeneration(OFFERINGS_TABLE);
+    }
+
+    /**
+     * getSearchCache returns the cache behind searchOfferings, e.g. to read its hit ratio.
+     * @return the search QueryCache
+     */
+    QueryCache<List<Offering>> getSearchCache() {
+        return mSearchCache;
+    }
+
+    /**
+     * searchOfferings returns the Offerings matching every given criterion, read with a
+     * single join of the Offerings, Courses and Instructors tables.
+     *
+     * Results are cached by their normalized parameters and served from memory until one
+     * of the three tables is written.  Every call returns a new list of new objects, so
+     * callers may sort it or change its offerings without affecting the cache.
+     * @param alpha subject alpha to match (case insensitive), or null for any
+     * @param semesterCode semester to match, or -1 for any
+     * @param instructorId id of the instructor to match, or -1 for any
+     * @return the matching Offerings
+     */
+    @Override
+    public List<Offering> searchOfferings(String alpha, int semesterCode, long instructorId) {
+        return searchOfferings(alpha, semesterCode, instructorId, false);
+    }
+
+    /**
+     * searchOfferings returns the offerings matching every given criterion, optionally
+     * including the semesters moved to the archive database by archiveOfferingsBefore.
+     * The archive is attached for the duration of the query only, and searches that include
+     * it run one at a time.
+     * @param alpha subject alpha to match (case insensitive), or null for any
+     * @param semesterCode semester to match, or -1 for any
+     * @param instructorId id of the instructor to match, or -1 for any
+     * @param includeArchive true to also search the archived offerings
+     * @return the matching Offerings
+     */
+    public List<Offering> searchOfferings(String alpha, int semesterCode, long instructorId,
+                                          boolean includeArchive) {
+        if (alpha != null && alpha.trim().isEmpty())
+            alpha = null;
+        String key = QueryCache.key(alpha, semesterCode, instructorId, includeArchive);
+        long generation = getSearchGeneration();
+        List<Offering> cached = mSearchCache.get(key, generation);
+        if (cached != null)
+            return copyOfferings(cached);
+
+        DBTrace.beginSection("DBHelper.searchOfferings");
+        try {
+            return copyOfferings(querySearch(key, generation, alpha, semesterCode,
+                    instructorId, includeArchive));
+        } finally {
+            DBTrace.endSection();
+        }
+    }
+
+    /**
+     * querySearch runs a search that missed the cache and caches its result.  The cached
+     * list is never handed out; callers get a copyOfferings of it.
+     */
+    private List<Offering> querySearch(String key, long generation, String alpha,
+                                       int semesterCode, long instructorId,
+                                       boolean includeArchive) {
+        List<Offering> offeringList;
+        SQLiteDatabase database = this.getReadableDatabase();
+        try {
+            if (includeArchive) {
+                synchronized (sArchiveLock) {
+                    boolean attached = attachArchive(database, false);
+                    try {
+                        offeringList = readSearch(database, alpha, semesterCode, instructorId,
+                                attached);
+                    } finally {
+                        if (attached)
+                            detachArchive(database);
+                    }
+                }
+            } else {
+                offeringList = readSearch(database, alpha, semesterCode, instructorId, false);
+            }
+        } finally {
+            database.close();
+        }
+
+        List<Offering> result = Collections.unmodifiableList(offeringList);
+        mSearchCache.put(key, generation, result);
+        return result;
+    }
+
+    /**
+     * readSearch runs the query of querySearch and builds its Offerings.
+     * @param withArchive true to read the archived offerings too; the archive must be attached
+     */
+    private List<Offering> readSearch(SQLiteDatabase database, String alpha, int semesterCode,
+                                      long instructorId, boolean withArchive) {
+        List<Offering> offeringList = new ArrayList<>();
+        Cursor cursor = queryOfferings(database, alpha, semesterCode, instructorId, withArchive);
+        try {
+            while (cursor.moveToNext()) {
+                Course course = new Course(cursor.getLong(2),
+                        mStrings.intern(cursor.getString(3)),
+                        mStrings.intern(cursor.getString(4)),
+                        mStrings.intern(cursor.getString(5)));
+                Instructor instructor = new Instructor(cursor.getLong(6),
+                        mStrings.intern(cursor.getString(7)),
+                        mStrings.intern(cursor.getString(8)),
+                        mStrings.intern(cursor.getString(9)));
+                offeringList.add(new Offering(cursor.getInt(0), cursor.getInt(1), course,
+                        instructor, mStrings.intern(cursor.getString(10)), cursor.getInt(11),
+                        cursor.getInt(12)));
+            }
+        } finally {
+            cursor.close();
+        }
+        return offeringList;
+    }
+
+    /**
+     * copyOfferings copies a list of offerings along with their courses and instructors.
+     * Offerings that shared a Course or Instructor share one copy of it.  The strings are
+     * immutable and already pooled, so they are shared rather than copied.
+     * @param offerings the offerings to copy
+     * @return a new, modifiable list of new Offerings
+     */
+    private static List<Offering> copyOfferings(List<Offering> offerings) {
+        List<Offering> copies = new ArrayList<>(offerings.size());
+        IdentityHashMap<Object, Object> copied = new IdentityHashMap<>();
+        for (Offering offering : offerings) {
+            Course course = offering.getCourse();
+            Course courseCopy = (Course) copied.get(course);
+            if (courseCopy == null) {
+                courseCopy = new Course(course.getId(), course.getAlpha(), course.getNumber(),
+                        course.getTitle());
+                copied.put(course, courseCopy);
+            }
+            Instructor instructor = offering.getInstructor();
+            Instructor instructorCopy = (Instructor) copied.get(instructor);
+            if (instructorCopy == null) {
+                instructorCopy = new Instructor(instructor.getId(), instructor.getLastName(),
+                        instructor.getFirstName(), instructor.getEmail());
+                copied.put(instructor, instructorCopy);
+            }
+            copies.add(new Offering(offering.getCRN(), offering.getSemesterCode(), courseCopy,
+                    instructorCopy, offering.getMeetingDays(), offering.getStartTime(),
+                    offering.getEndTime()));
+        }
+        return copies;
+    }
+
+    /**
+     * queryOfferings runs the join of the Offerings, Courses and Instructors tables behind
+     * searchOfferings and exportOfferings.  The columns are crn, semester code, course id,
+     * alpha, number, title, instructor id, last name, first name, email, meeting days,
+     * start time and end time.
+     * @param withArchive true to read the archived offerings too; the archive must be attached
+     *                    and stay attached until the cursor is closed
+     * @return the cursor, which the caller must close
+     */
+    private static Cursor queryOfferings(SQLiteDatabase database, String alpha, int semesterCode,
+                                         long instructorId, boolean withArchive) {
+        StringBuilder where = new StringBuilder();
+        List<String> args = new ArrayList<>();
+        if (alpha != null) {
+            where.append(" AND c.").append(FIELD_ALPHA).append(" = ? COLLATE NOCASE");
+            args.add(alpha.trim());
+        }
+        if (semesterCode != -1) {
+            where.append(" AND o.").append(FIELD_SEMESTER_CODE).append(" = ?");
+            args.add(String.valueOf(semesterCode));
+        }
+        if (instructorId != -1) {
+            where.append(" AND o.").append(FIELD_INSTRUCTOR_ID).append(" = ?");
+            args.add(String.valueOf(instructorId));
+        }
+
+        String query = "SELECT o." + FIELD_CRN + ", o." + FIELD_SEMESTER_CODE
+                + ", c." + COURSES_KEY_FIELD_ID + ", c." + FIELD_ALPHA
+                + ", c." + FIELD_NUMBER + ", c." + FIELD_TITLE
+                + ", i." + INSTRUCTORS_KEY_FIELD_ID + ", i." + FIELD_LAST_NAME
+                + ", i." + FIELD_FIRST_NAME + ", i." + FIELD_EMAIL
+                + ", o." + FIELD_MEETING_DAYS + ", o." + FIELD_START_TIME
+                + ", o." + FIELD_END_TIME
+                + " FROM " + (withArchive ? ALL_OFFERINGS : OFFERINGS_TABLE) + " o"
+                + " JOIN " + COURSES_TABLE + " c ON o." + FIELD_COURSE_ID
+                + " = c." + COURSES_KEY_FIELD_ID
+                + " JOIN " + INSTRUCTORS_TABLE + " i ON o." + FIELD_INSTRUCTOR_ID
+                + " = i." + INSTRUCTORS_KEY_FIELD_ID
+                + " WHERE 1 = 1" + where;
+
+        return database.rawQuery(query, args.toArray(new String[args.size()]));
+    }
+
+    /**
+     * findSchedules returns up to maxSchedules conflict-free schedules made of one section of
+     * each of the given courses in a semester.  The sections come from searchOfferings and
+     * the schedules from a ScheduleBuilder.  A course id given twice is scheduled once.
+     * @param semesterCode semester to schedule
+     * @param courseIds ids of the courses to take together
+     * @param maxSchedules the maximum number of schedules to return
+     * @return the schedules, each one Offering per distinct course in the order of courseIds
+     */
+    public List<List<Offering>> findSchedules(int semesterCode, long[] courseIds, int maxSchedules) {
+        LinkedHashMap<Long, List<Offering>> sectionsByCourse = new LinkedHashMap<>();
+        for (long courseId : courseIds)
+            if (!sectionsByCourse.containsKey(courseId))
+                sectionsByCourse.put(courseId, new ArrayList<Offering>());
+        for (Offering offering : searchOfferings(null, semesterCode, -1)) {
+            List<Offering> sections = sectionsByCourse.get(offering.getCourse().getId());
+            if (sections != null)
+                sections.add(offering);
+        }
+
+        List<List<Offering>> sectionsPerCourse = new ArrayList<>(sectionsByCourse.values());
+        return new ScheduleBuilder(sectionsPerCourse).findSchedules(maxSchedules);
+    }
+
     //********** COURSE TABLE OPERATIONS:  ADD, GETALL, EDIT, DELETE
 
     /**
      * addCourse adds a, you guessed it, course!
      * A writable reference to the database is acquired,
      * a ContentValues object is instantiated and values from the course
-     * argument are put into it.
+     * argument are put into it.  A course id of 1 or more is kept as the primary key,
+     * otherwise SQLite assigns the next free id.
      *
      * This ContentValues object is then inserted into the database.
      * Finally the database is closed.
      * @param course
      */
+    @Override
     public void addCourse(Course course) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        ContentValues values = new ContentValues();
+        DBTrace.beginSection("DBHelper.addCourse");
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            ContentValues values = courseValues(course);
+
+            long id = db.insert(COURSES_TABLE, null, values);
+            if (id != -1 && mStats.isLoaded())
+                mStats.putCourse(id, course.getAlpha());
+            written(COURSES_TABLE);
+
+            // CLOSE THE DATABASE CONNECTION
+            db.close();
+        } finally {
+            DBTrace.endSection();
+        }
+    }
 
+    private static ContentValues courseValues(Course course) {
+        ContentValues values = new ContentValues();
+        if (course.getId() > 0)
+            values.put(COURSES_KEY_FIELD_ID, course.getId());
         values.put(FIELD_ALPHA, course.getAlpha());
         values.put(FIELD_NUMBER, course.getNumber());
         values.put(FIELD_TITLE, course.getTitle());
-
-        db.insert(COURSES_TABLE, null, values);
-
-        // CLOSE THE DATABASE CONNECTION
-        db.close();
+        return values;
     }
 
     /**
@@ -158,30 +640,36 @@ class DBHelper extends SQLiteOpenHelper {
      * populated from the courses csv file.
      * @return List<Course>
      */
+    @Override
     public List<Course> getAllCourses() {
-        List<Course> coursesList = new ArrayList<>();
-        SQLiteDatabase database = this.getReadableDatabase();
-        Cursor cursor = database.query(
-                COURSES_TABLE,
-                new String[]{COURSES_KEY_FIELD_ID, FIELD_ALPHA, FIELD_NUMBER, FIELD_TITLE},
-                null,
-                null,
-                null, null, null, null);
-
-        //COLLECT EACH ROW IN THE TABLE
-        if (cursor.moveToFirst()) {
-            do {
-                Course course =
-                        new Course(cursor.getLong(0),
-                                cursor.getString(1),
-                                cursor.getString(2),
-                                cursor.getString(3));
-                coursesList.add(course);
-            } while (cursor.moveToNext());
+        DBTrace.beginSection("DBHelper.getAllCourses");
+        try {
+            List<Course> coursesList = new ArrayList<>();
+            SQLiteDatabase database = this.getReadableDatabase();
+            Cursor cursor = database.query(
+                    COURSES_TABLE,
+                    new String[]{COURSES_KEY_FIELD_ID, FIELD_ALPHA, FIELD_NUMBER, FIELD_TITLE},
+                    null,
+                    null,
+                    null, null, null, null);
+
+            //COLLECT EACH ROW IN THE TABLE
+            if (cursor.moveToFirst()) {
+                do {
+                    Course course =
+                            new Course(cursor.getLong(0),
+                                    mStrings.intern(cursor.getString(1)),
+                                    mStrings.intern(cursor.getString(2)),
+                                    mStrings.intern(cursor.getString(3)));
+                    coursesList.add(course);
+                } while (cursor.moveToNext());
+            }
+            cursor.close();
+            database.close();
+            return coursesList;
+        } finally {
+            DBTrace.endSection();
         }
-        cursor.close();
-        database.close();
-        return coursesList;
     }
 
     /**
@@ -190,13 +678,22 @@ class DBHelper extends SQLiteOpenHelper {
      * Then close the db.
      * @param course
      */
+    @Override
     public void deleteCourse(Course course) {
-        SQLiteDatabase db = this.getWritableDatabase();
-
-        // DELETE THE TABLE ROW
-        db.delete(COURSES_TABLE, COURSES_KEY_FIELD_ID + " = ?",
-                new String[]{String.valueOf(course.getId())});
-        db.close();
+        DBTrace.beginSection("DBHelper.deleteCourse");
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+
+            // DELETE THE TABLE ROW
+            db.delete(COURSES_TABLE, COURSES_KEY_FIELD_ID + " = ?",
+                    new String[]{String.valueOf(course.getId())});
+            if (mStats.isLoaded())
+                mStats.removeCourse(course.getId());
+            written(COURSES_TABLE);
+            db.close();
+        } finally {
+            DBTrace.endSection();
+        }
     }
 
     /**
@@ -205,10 +702,20 @@ class DBHelper extends SQLiteOpenHelper {
      * is intact, it is just empty.
      * We then close the db.
      */
+    @Override
     public void deleteAllCourses() {
-        SQLiteDatabase db = this.getWritableDatabase();
-        db.delete(COURSES_TABLE, null, null);
-        db.close();
+        DBTrace.beginSection("DBHelper.deleteAllCourses");
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            db.delete(COURSES_TABLE, null, null);
+            if (mStats.isLoaded())
+                mStats.clearCourses();
+            written(COURSES_TABLE);
+            mStrings.clear();
+            db.close();
+        } finally {
+            DBTrace.endSection();
+        }
     }
 
     /**
@@ -219,17 +726,26 @@ class DBHelper extends SQLiteOpenHelper {
      * Closes the db.
      * @param course
      */
+    @Override
     public void updateCourse(Course course) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        ContentValues values = new ContentValues();
-
-        values.put(FIELD_ALPHA, course.getAlpha());
-        values.put(FIELD_NUMBER, course.getNumber());
-        values.put(FIELD_TITLE, course.getTitle());
-
-        db.update(COURSES_TABLE, values, COURSES_KEY_FIELD_ID + " = ?",
-                new String[]{String.valueOf(course.getId())});
-        db.close();
+        DBTrace.beginSection("DBHelper.updateCourse");
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            ContentValues values = new ContentValues();
+
+            values.put(FIELD_ALPHA, course.getAlpha());
+            values.put(FIELD_NUMBER, course.getNumber());
+            values.put(FIELD_TITLE, course.getTitle());
+
+            int rows = db.update(COURSES_TABLE, values, COURSES_KEY_FIELD_ID + " = ?",
+                    new String[]{String.valueOf(course.getId())});
+            if (rows > 0 && mStats.isLoaded())
+                mStats.putCourse(course.getId(), course.getAlpha());
+            written(COURSES_TABLE);
+            db.close();
+        } finally {
+            DBTrace.endSection();
+        }
     }
 
     /**
@@ -242,31 +758,40 @@ class DBHelper extends SQLiteOpenHelper {
      *
      * Using the Cursor we instantiate a new Course object.
      * Both the cursor and database are closed.
-     * Return the new Course.
+     * Return the new Course, or null if there is no course with that id.
      * @param id of the course to be retrieved.
      * @return
      */
+    @Override
     public Course getCourse(long id) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.query(
-                COURSES_TABLE,
-                new String[]{COURSES_KEY_FIELD_ID, FIELD_ALPHA, FIELD_NUMBER, FIELD_TITLE},
-                COURSES_KEY_FIELD_ID + "=?",
-                new String[]{String.valueOf(id)},
-                null, null, null, null);
-
-        if (cursor != null)
-            cursor.moveToFirst();
-
-        Course course = new Course(
-                cursor.getLong(0),
-                cursor.getString(1),
-                cursor.getString(2),
-                cursor.getString(3));
+        DBTrace.beginSection("DBHelper.getCourse");
+        try {
+            SQLiteDatabase db = this.getReadableDatabase();
+            Cursor cursor = db.query(
+                    COURSES_TABLE,
+                    new String[]{COURSES_KEY_FIELD_ID, FIELD_ALPHA, FIELD_NUMBER, FIELD_TITLE},
+                    COURSES_KEY_FIELD_ID + "=?",
+                    new String[]{String.valueOf(id)},
+                    null, null, null, null);
+
+            if (!cursor.moveToFirst()) {
+                cursor.close();
+                db.close();
+                return null;
+            }
 
-        cursor.close();
-        db.close();
-        return course;
+            Course course = new Course(
+                    cursor.getLong(0),
+                    mStrings.intern(cursor.getString(1)),
+                    mStrings.intern(cursor.getString(2)),
+                    mStrings.intern(cursor.getString(3)));
+
+            cursor.close();
+            db.close();
+            return course;
+        } finally {
+            DBTrace.endSection();
+        }
     }
 
 
@@ -274,51 +799,71 @@ class DBHelper extends SQLiteOpenHelper {
 
     /**
      * addInstructor adds an instructor to the database using the data provided from the
-     * Instructor argument passed in.
+     * Instructor argument passed in.  An instructor id of 1 or more is kept as the primary
+     * key, otherwise SQLite assigns the next free id.
      * @param instructor
      */
+    @Override
     public void addInstructor(Instructor instructor) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        ContentValues values = new ContentValues();
+        DBTrace.beginSection("DBHelper.addInstructor");
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            ContentValues values = instructorValues(instructor);
+
+            db.insert(INSTRUCTORS_TABLE, null, values);
+            written(INSTRUCTORS_TABLE);
+
+            // CLOSE THE DATABASE CONNECTION
+            db.close();
+        } finally {
+            DBTrace.endSection();
+        }
+    }
 
+    private static ContentValues instructorValues(Instructor instructor) {
+        ContentValues values = new ContentValues();
+        if (instructor.getId() > 0)
+            values.put(INSTRUCTORS_KEY_FIELD_ID, instructor.getId());
         values.put(FIELD_LAST_NAME, instructor.getLastName());
         values.put(FIELD_FIRST_NAME, instructor.getFirstName());
         values.put(FIELD_EMAIL, instructor.getEmail());
-
-        db.insert(INSTRUCTORS_TABLE, null, values);
-
-        // CLOSE THE DATABASE CONNECTION
-        db.close();
+        return values;
     }
 
     /**
      * getAllInstructors returns a List of all Instructors in the OCC database.
      * @return
      */
+    @Override
     public List<Instructor> getAllInstructors() {
-        List<Instructor> instructorsList = new ArrayList<>();
-        SQLiteDatabase database = this.getReadableDatabase();
-        Cursor cursor = database.query(
-                INSTRUCTORS_TABLE,
-                new String[]{INSTRUCTORS_KEY_FIELD_ID, FIELD_LAST_NAME, FIELD_FIRST_NAME, FIELD_EMAIL},
-                null,
-                null,
-                null, null, null, null);
-
-        //COLLECT EACH ROW IN THE TABLE
-        if (cursor.moveToFirst()) {
-            do {
-                Instructor instructor =
-                        new Instructor(cursor.getLong(0),
-                                cursor.getString(1),
-                                cursor.getString(2),
-                                cursor.getString(3));
-                instructorsList.add(instructor);
-            } while (cursor.moveToNext());
+        DBTrace.beginSection("DBHelper.getAllInstructors");
+        try {
+            List<Instructor> instructorsList = new ArrayList<>();
+            SQLiteDatabase database = this.getReadableDatabase();
+            Cursor cursor = database.query(
+                    INSTRUCTORS_TABLE,
+                    new String[]{INSTRUCTORS_KEY_FIELD_ID, FIELD_LAST_NAME, FIELD_FIRST_NAME, FIELD_EMAIL},
+                    null,
+                    null,
+                    null, null, null, null);
+
+            //COLLECT EACH ROW IN THE TABLE
+            if (cursor.moveToFirst()) {
+                do {
+                    Instructor instructor =
+                            new Instructor(cursor.getLong(0),
+                                    mStrings.intern(cursor.getString(1)),
+                                    mStrings.intern(cursor.getString(2)),
+                                    mStrings.intern(cursor.getString(3)));
+                    instructorsList.add(instructor);
+                } while (cursor.moveToNext());
+            }
+            cursor.close();
+            database.close();
+            return instructorsList;
+        } finally {
+            DBTrace.endSection();
         }
-        cursor.close();
-        database.close();
-        return instructorsList;
     }
 
     /**
@@ -326,23 +871,38 @@ class DBHelper extends SQLiteOpenHelper {
      * searched for an instructor matching the provided argument and that entry is deleted.
      * @param instructor
      */
+    @Override
     public void deleteInstructor(Instructor instructor) {
-        SQLiteDatabase db = this.getWritableDatabase();
-
-        // DELETE THE TABLE ROW
-        db.delete(INSTRUCTORS_TABLE, INSTRUCTORS_KEY_FIELD_ID + " = ?",
-                new String[]{String.valueOf(instructor.getId())});
-        db.close();
+        DBTrace.beginSection("DBHelper.deleteInstructor");
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+
+            // DELETE THE TABLE ROW
+            db.delete(INSTRUCTORS_TABLE, INSTRUCTORS_KEY_FIELD_ID + " = ?",
+                    new String[]{String.valueOf(instructor.getId())});
+            written(INSTRUCTORS_TABLE);
+            db.close();
+        } finally {
+            DBTrace.endSection();
+        }
     }
 
     /**
      * deleteAllInstructors() deletes/drops all Instructors from the Instructors table of the
      * OCC database.
      */
+    @Override
     public void deleteAllInstructors() {
-        SQLiteDatabase db = this.getWritableDatabase();
-        db.delete(INSTRUCTORS_TABLE, null, null);
-        db.close();
+        DBTrace.beginSection("DBHelper.deleteAllInstructors");
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            db.delete(INSTRUCTORS_TABLE, null, null);
+            written(INSTRUCTORS_TABLE);
+            mStrings.clear();
+            db.close();
+        } finally {
+            DBTrace.endSection();
+        }
     }
 
     /**
@@ -351,46 +911,63 @@ class DBHelper extends SQLiteOpenHelper {
      * information to match that of the provided Instructor argument.
      * @param instructor
      */
+    @Override
     public void updateInstructor(Instructor instructor) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        ContentValues values = new ContentValues();
-
-        values.put(FIELD_FIRST_NAME, instructor.getFirstName());
-        values.put(FIELD_LAST_NAME, instructor.getLastName());
-        values.put(FIELD_EMAIL, instructor.getEmail());
-
-        db.update(INSTRUCTORS_TABLE, values, INSTRUCTORS_KEY_FIELD_ID + " = ?",
-                new String[]{String.valueOf(instructor.getId())});
-        db.close();
+        DBTrace.beginSection("DBHelper.updateInstructor");
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            ContentValues values = new ContentValues();
+
+            values.put(FIELD_FIRST_NAME, instructor.getFirstName());
+            values.put(FIELD_LAST_NAME, instructor.getLastName());
+            values.put(FIELD_EMAIL, instructor.getEmail());
+
+            db.update(INSTRUCTORS_TABLE, values, INSTRUCTORS_KEY_FIELD_ID + " = ?",
+                    new String[]{String.valueOf(instructor.getId())});
+            written(INSTRUCTORS_TABLE);
+            db.close();
+        } finally {
+            DBTrace.endSection();
+        }
     }
 
     /**
      * getInstructor accepts a long as an argument.  An Instructor matching that id
-     * is Instantiated and returned using the data retrieved from the database.
+     * is Instantiated and returned using the data retrieved from the database,
+     * or null if there is no such instructor.
      * @param id
      * @return
      */
+    @Override
     public Instructor getInstructor(long id) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.query(
-                INSTRUCTORS_TABLE,
-                new String[]{INSTRUCTORS_KEY_FIELD_ID, FIELD_LAST_NAME, FIELD_FIRST_NAME, FIELD_EMAIL},
-                INSTRUCTORS_KEY_FIELD_ID + "=?",
-                new String[]{String.valueOf(id)},
-                null, null, null, null);
-
-        if (cursor != null)
-            cursor.moveToFirst();
-
-        Instructor instructor = new Instructor(
-                cursor.getLong(0),
-                cursor.getString(1),
-                cursor.getString(2),
-                cursor.getString(3));
+        DBTrace.beginSection("DBHelper.getInstructor");
+        try {
+            SQLiteDatabase db = this.getReadableDatabase();
+            Cursor cursor = db.query(
+                    INSTRUCTORS_TABLE,
+                    new String[]{INSTRUCTORS_KEY_FIELD_ID, FIELD_LAST_NAME, FIELD_FIRST_NAME, FIELD_EMAIL},
+                    INSTRUCTORS_KEY_FIELD_ID + "=?",
+                    new String[]{String.valueOf(id)},
+                    null, null, null, null);
+
+            if (!cursor.moveToFirst()) {
+                cursor.close();
+                db.close();
+                return null;
+            }
 
-        cursor.close();
-        db.close();
-        return instructor;
+            Instructor instructor = new Instructor(
+                    cursor.getLong(0),
+                    mStrings.intern(cursor.getString(1)),
+                    mStrings.intern(cursor.getString(2)),
+                    mStrings.intern(cursor.getString(3)));
+
+            cursor.close();
+            db.close();
+            return instructor;
+        } finally {
+            DBTrace.endSection();
+        }
     }
 
 
@@ -403,73 +980,140 @@ class DBHelper extends SQLiteOpenHelper {
      * addOffering accepts four arguments.  A Course CRN number, a semester code,
      * the id of the course and the id of the instructor.
      *
-     * The provided arguments are put into a ContentValues object and inserted into the db.
+     * The offering is added without a meeting time (TBA).
      *
      * @param crn this is unique identifier for a Course
      * @param semesterCode this is the semester in which the course is being taught
      * @param courseId id of the course
      * @param instructorId id of the instructor
      */
+    @Override
     public void addOffering(int crn, int semesterCode, long courseId, long instructorId) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        ContentValues values = new ContentValues();
+        addOffering(crn, semesterCode, courseId, instructorId, "", -1, -1);
+    }
 
+    /**
+     * addOffering accepts seven arguments.  A Course CRN number, a semester code,
+     * the id of the course, the id of the instructor and the meeting time.
+     *
+     * The provided arguments are put into a ContentValues object and inserted into the db.
+     *
+     * @param crn this is unique identifier for a Course
+     * @param semesterCode this is the semester in which the course is being taught
+     * @param courseId id of the course
+     * @param instructorId id of the instructor
+     * @param meetingDays days the offering meets, e.g. MW, or empty for TBA
+     * @param startTime start time in minutes after midnight, or -1
+     * @param endTime end time in minutes after midnight, or -1
+     */
+    @Override
+    public void addOffering(int crn, int semesterCode, long courseId, long instructorId,
+                            String meetingDays, int startTime, int endTime) {
+        DBTrace.beginSection("DBHelper.addOffering");
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            ContentValues values = offeringValues(crn, semesterCode, courseId, instructorId,
+                    meetingDays, startTime, endTime);
+
+            long rowId = db.insert(OFFERINGS_TABLE, null, values);
+            if (rowId != -1 && mStats.isLoaded())
+                mStats.addOffering(semesterCode, courseId, instructorId);
+
+            written(OFFERINGS_TABLE);
+            db.close();
+        } finally {
+            DBTrace.endSection();
+        }
+    }
+
+    private static ContentValues offeringValues(int crn, int semesterCode, long courseId,
+                                                long instructorId, String meetingDays,
+                                                int startTime, int endTime) {
+        ContentValues values = new ContentValues();
         values.put(FIELD_CRN, crn);
         values.put(FIELD_SEMESTER_CODE, semesterCode);
         values.put(FIELD_COURSE_ID, courseId);
         values.put(FIELD_INSTRUCTOR_ID, instructorId);
-
-        db.insert(OFFERINGS_TABLE, null, values);
-
-        db.close();
+        values.put(FIELD_MEETING_DAYS, meetingDays);
+        values.put(FIELD_START_TIME, startTime);
+        values.put(FIELD_END_TIME, endTime);
+        return values;
     }
 
     /**
      * getAllOfferings returns all Offerings in the db.
      * @return
      */
+    @Override
     public List<Offering> getAllOfferings() {
-        List<Offering> offeringList = new ArrayList<>();
-        SQLiteDatabase database = this.getReadableDatabase();
-        Cursor cursor = database.query(
-                OFFERINGS_TABLE,
-                new String[]{FIELD_CRN, FIELD_SEMESTER_CODE, FIELD_COURSE_ID, FIELD_INSTRUCTOR_ID},
-                null,
-                null,
-                null, null, null, null);
-
-        if (cursor.moveToFirst()){
-            do {
-                Offering offering = new Offering((int) cursor.getLong(0),
-                        (int) cursor.getLong(1),
-                        getCourse(cursor.getLong(2)),
-                        getInstructor(cursor.getLong(3)));
-                offeringList.add(offering);
-            } while (cursor.moveToNext());
+        DBTrace.beginSection("DBHelper.getAllOfferings");
+        try {
+            List<Offering> offeringList = new ArrayList<>();
+            SQLiteDatabase database = this.getReadableDatabase();
+            Cursor cursor = database.query(
+                    OFFERINGS_TABLE,
+                    new String[]{FIELD_CRN, FIELD_SEMESTER_CODE, FIELD_COURSE_ID, FIELD_INSTRUCTOR_ID,
+                            FIELD_MEETING_DAYS, FIELD_START_TIME, FIELD_END_TIME},
+                    null,
+                    null,
+                    null, null, null, null);
+
+            if (cursor.moveToFirst()){
+                do {
+                    Offering offering = new Offering((int) cursor.getLong(0),
+                            (int) cursor.getLong(1),
+                            getCourse(cursor.getLong(2)),
+                            getInstructor(cursor.getLong(3)),
+                            mStrings.intern(cursor.getString(4)),
+                            cursor.getInt(5),
+                            cursor.getInt(6));
+                    offeringList.add(offering);
+                } while (cursor.moveToNext());
+            }
+            cursor.close();
+            database.close();
+            return offeringList;
+        } finally {
+            DBTrace.endSection();
         }
-        cursor.close();
-        database.close();
-        return offeringList;
     }
 
     /**
      * deleteOffering deletes the entry in the database matching the provided argument.
      * @param offering
      */
+    @Override
     public void deleteOffering(Offering offering) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        db.delete(OFFERINGS_TABLE, FIELD_CRN + " = ?",
-                new String[]{String.valueOf(offering.getCRN())});
-        db.close();
+        DBTrace.beginSection("DBHelper.deleteOffering");
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            uncountOfferings(db, offering.getCRN());
+            db.delete(OFFERINGS_TABLE, FIELD_CRN + " = ?",
+                    new String[]{String.valueOf(offering.getCRN())});
+            written(OFFERINGS_TABLE);
+            db.close();
+        } finally {
+            DBTrace.endSection();
+        }
     }
 
     /**
      * deleteAllOfferings deletes all Offerings from the Offerings table in the database.
      */
+    @Override
     public void deleteAllOfferings() {
-        SQLiteDatabase db = this.getWritableDatabase();
-        db.delete(OFFERINGS_TABLE, null, null);
-        db.close();
+        DBTrace.beginSection("DBHelper.deleteAllOfferings");
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            db.delete(OFFERINGS_TABLE, null, null);
+            if (mStats.isLoaded())
+                mStats.clearOfferings();
+            written(OFFERINGS_TABLE);
+            mStrings.clear();
+            db.close();
+        } finally {
+            DBTrace.endSection();
+        }
     }
 
     /**
@@ -477,104 +1121,515 @@ class DBHelper extends SQLiteOpenHelper {
      * argument.
      * @param offering
      */
+    @Override
     public void updateOffering(Offering offering){
-        SQLiteDatabase db = this.getWritableDatabase();
-        ContentValues values = new ContentValues();
-
-        values.put(FIELD_CRN, offering.getCRN());
-        values.put(FIELD_SEMESTER_CODE, offering.getSemesterCode());
-        values.put(FIELD_COURSE_ID, offering.getCourse().getId());
-        values.put(FIELD_INSTRUCTOR_ID, offering.getInstructor().getId());
-
-        db.update(OFFERINGS_TABLE, values, FIELD_CRN + " = ?",
-                new String[]{String.valueOf(offering.getCRN())});
-        db.close();
+        DBTrace.beginSection("DBHelper.updateOffering");
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            ContentValues values = new ContentValues();
+
+            values.put(FIELD_CRN, offering.getCRN());
+            values.put(FIELD_SEMESTER_CODE, offering.getSemesterCode());
+            values.put(FIELD_COURSE_ID, offering.getCourse().getId());
+            values.put(FIELD_INSTRUCTOR_ID, offering.getInstructor().getId());
+            values.put(FIELD_MEETING_DAYS, offering.getMeetingDays());
+            values.put(FIELD_START_TIME, offering.getStartTime());
+            values.put(FIELD_END_TIME, offering.getEndTime());
+
+            uncountOfferings(db, offering.getCRN());
+            int rows = db.update(OFFERINGS_TABLE, values, FIELD_CRN + " = ?",
+                    new String[]{String.valueOf(offering.getCRN())});
+            if (mStats.isLoaded())
+                mStats.addOfferings(offering.getSemesterCode(), offering.getCourse().getId(),
+                        offering.getInstructor().getId(), rows);
+            written(OFFERINGS_TABLE);
+            db.close();
+        } finally {
+            DBTrace.endSection();
+        }
     }
 
     /**
      * getOffering returns an Offering object.  The Offering object is built from the
-     * values of the entry stored in the table which matches the id argument.
+     * values of the entry stored in the table which matches the id argument, or null if
+     * no offering has that CRN.
      * @param id
      * @return
      */
+    @Override
     public Offering getOffering(long id) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.query(
-                OFFERINGS_TABLE,
-                new String[]{FIELD_CRN, FIELD_SEMESTER_CODE, FIELD_COURSE_ID, FIELD_INSTRUCTOR_ID},
-                FIELD_CRN + "=?",
-                new String[]{String.valueOf(id)},
-                null, null, null, null);
-
-        if (cursor != null)
-            cursor.moveToFirst();
-
-        Offering offering = new Offering(
-                (int) cursor.getLong(0),
-                (int) cursor.getLong(1),
-                getCourse(cursor.getLong(2)),
-                getInstructor(cursor.getLong(3)));
-        cursor.close();
-        db.close();
-        return offering;
+        DBTrace.beginSection("DBHelper.getOffering");
+        try {
+            SQLiteDatabase db = this.getReadableDatabase();
+            Cursor cursor = db.query(
+                    OFFERINGS_TABLE,
+                    new String[]{FIELD_CRN, FIELD_SEMESTER_CODE, FIELD_COURSE_ID, FIELD_INSTRUCTOR_ID,
+                            FIELD_MEETING_DAYS, FIELD_START_TIME, FIELD_END_TIME},
+                    FIELD_CRN + "=?",
+                    new String[]{String.valueOf(id)},
+                    null, null, null, null);
+
+            if (!cursor.moveToFirst()) {
+                cursor.close();
+                db.close();
+                return null;
+            }
+
+            Offering offering = new Offering(
+                    (int) cursor.getLong(0),
+                    (int) cursor.getLong(1),
+                    getCourse(cursor.getLong(2)),
+                    getInstructor(cursor.getLong(3)),
+                    mStrings.intern(cursor.getString(4)),
+                    cursor.getInt(5),
+                    cursor.getInt(6));
+            cursor.close();
+            db.close();
+            return offering;
+        } finally {
+            DBTrace.endSection();
+        }
+    }
+
+
+
+
+
+
+
+
+    //********** BINARY SNAPSHOT
+
+    /**
+     * getSnapshotFile returns where the catalog snapshot of this app version is kept.  The
+     * name carries the version code, so an update that ships new csv files imports them again.
+     * @param context the app Context
+     * @return the snapshot file, which may not exist
+     */
+    static File getSnapshotFile(Context context) {
+        return new File(context.getFilesDir(), "catalog-" + BuildConfig.VERSION_CODE + ".snapshot");
     }
 
+    /**
+     * deleteCatalog deletes the database, the archive database and the snapshot, leaving
+     * nothing of the catalog behind, e.g. before a fresh import or after a test.  A DBHelper
+     * still open at that point reopens a new, empty database and empties its StringPool on
+     * its next access.
+     * @param context the app Context
+     */
+    static void deleteCatalog(Context context) {
+        context.deleteDatabase(DATABASE_NAME);
+        context.deleteDatabase(ARCHIVE_DATABASE_NAME);
+        getSnapshotFile(context).delete();
+        sSnapshotMayExist = false;
+        synchronized (sGenerations) {
+            sCatalogDeletions++;
+        }
+        bumpGeneration(COURSES_TABLE);
+        bumpGeneration(INSTRUCTORS_TABLE);
+        bumpGeneration(OFFERINGS_TABLE);
+    }
+
+    /**
+     * writeSnapshot saves the whole catalog as a CatalogSnapshot file, which can later be
+     * opened read-only without going through the database.
+     *
+     * The snapshot is only valid until the catalog changes: every add, update, delete,
+     * import or archive made through a DBHelper, and every write through
+     * CatalogContentProvider, deletes it.  A write that lands while the snapshot is being
+     * written deletes it as well.
+     * @return true if successful
+     */
+    boolean writeSnapshot() {
+        DBTrace.beginSection("DBHelper.writeSnapshot");
+        try {
+            File file = getSnapshotFile(mContext);
+            long generation = getSearchGeneration();
+            try {
+                // getAllOfferings, not the join of searchOfferings, so the snapshot keeps the
+                // offerings whose course or instructor is missing, just like the database.
+                CatalogSnapshot.write(file, getAllCourses(), getAllInstructors(),
+                        getAllOfferings());
+            } catch (IOException e) {
+                e.printStackTrace();
+                return false;
+            }
+            // Set before the check, so a write either sees the flag or is seen by the check.
+            sSnapshotMayExist = true;
+            if (generation != getSearchGeneration()) {
+                file.delete();
+                return false;
+            }
+            return true;
+        } finally {
+            DBTrace.endSection();
+        }
+    }
 
+    /**
+     * deleteSnapshot deletes the catalog snapshot, which no longer matches the database.
+     */
+    private void deleteSnapshot() {
+        if (!sSnapshotMayExist)
+            return;
+        sSnapshotMayExist = false;
+        DBTrace.checkNotMainThread("deleteSnapshot");
+        getSnapshotFile(mContext).delete();
+    }
 
+    //********** STREAMING EXPORT
 
+    /**
+     * exportOfferings writes the offerings matching every given criterion straight from the
+     * joined cursor to a stream through a CatalogExporter, without building any Offering
+     * objects, so memory use does not grow with the number of rows exported.
+     * The stream is closed when the export ends, whether it succeeds or not.
+     * @param out the stream to write to
+     * @param format CSV (the offerings.csv format, which can be imported again) or JSON
+     * @param gzip true to gzip compress the output
+     * @param alpha subject alpha to match (case insensitive), or null for any
+     * @param semesterCode semester to match, or -1 for any
+     * @param instructorId id of the instructor to match, or -1 for any
+     * @return the number of offerings exported, or -1 if writing failed
+     */
+    int exportOfferings(OutputStream out, CatalogExporter.Format format, boolean gzip,
+                        String alpha, int semesterCode, long instructorId) {
+        DBTrace.beginSection("DBHelper.exportOfferings");
+        try {
+            if (alpha != null && alpha.trim().isEmpty())
+                alpha = null;
+            CatalogExporter exporter = null;
+            SQLiteDatabase database = this.getReadableDatabase();
+            Cursor cursor = queryOfferings(database, alpha, semesterCode, instructorId, false);
+            try {
+                exporter = new CatalogExporter(out, format, gzip);
+                while (cursor.moveToNext()) {
+                    exporter.writeOffering(cursor.getInt(0), cursor.getInt(1),
+                            cursor.getLong(2), cursor.getString(3), cursor.getString(4),
+                            cursor.getString(5),
+                            cursor.getLong(6), cursor.getString(7), cursor.getString(8),
+                            cursor.getString(9),
+                            cursor.getString(10), cursor.getInt(11), cursor.getInt(12));
+                }
+                exporter.close();
+                return exporter.getRowCount();
+            } catch (IOException e) {
+                e.printStackTrace();
+                return -1;
+            } finally {
+                cursor.close();
+                database.close();
+                closeQuietly((exporter == null) ? out : exporter);
+            }
+        } finally {
+            DBTrace.endSection();
+        }
+    }
 
+    //********** SEMESTER ARCHIVE
 
+    private static final String OFFERINGS_COLUMNS = FIELD_CRN + ", " + FIELD_SEMESTER_CODE
+            + ", " + FIELD_COURSE_ID + ", " + FIELD_INSTRUCTOR_ID + ", " + FIELD_MEETING_DAYS
+            + ", " + FIELD_START_TIME + ", " + FIELD_END_TIME;
+    private static final String ALL_OFFERINGS = "(SELECT " + OFFERINGS_COLUMNS
+            + " FROM main." + OFFERINGS_TABLE + " UNION ALL SELECT " + OFFERINGS_COLUMNS
+            + " FROM " + ARCHIVE_ALIAS + "." + OFFERINGS_TABLE + ")";
 
+    /**
+     * archiveOfferingsBefore moves every offering of a semester older than the given one
+     * out of the Offerings table and into the archive database, OCC_archive.  The copy and
+     * the delete happen in one transaction, so an offering is always in exactly one of the
+     * two databases.  Courses and instructors stay in the main database.
+     *
+     * Archived offerings are no longer returned by getAllOfferings, searchOfferings or
+     * counted by getCatalogStats; use searchOfferings(..., true) to include them.
+     *
+     * Deleted rows only leave free pages behind, so after a move the main database is
+     * vacuumed to give the space back; otherwise archiving would never shrink OCC.
+     * @param semesterCode the oldest semester to keep, e.g. 201810
+     * @return the number of offerings archived, or -1 if the move failed
+     */
+    public int archiveOfferingsBefore(int semesterCode) {
+        DBTrace.beginSection("DBHelper.archiveOfferingsBefore");
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            String[] args = {String.valueOf(semesterCode)};
+            int moved = -1;
+            synchronized (sArchiveLock) {
+                try {
+                    attachArchive(db, true);
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                    db.close();
+                    return -1;
+                }
+                db.beginTransaction();
+                try {
+                    db.execSQL("INSERT INTO " + ARCHIVE_ALIAS + "." + OFFERINGS_TABLE
+                            + " (" + OFFERINGS_COLUMNS + ") SELECT " + OFFERINGS_COLUMNS
+                            + " FROM main." + OFFERINGS_TABLE
+                            + " WHERE " + FIELD_SEMESTER_CODE + " < ?", args);
+                    moved = db.delete(OFFERINGS_TABLE, FIELD_SEMESTER_CODE + " < ?", args);
+                    db.setTransactionSuccessful();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                } finally {
+                    db.endTransaction();
+                    detachArchive(db);
+                }
+            }
+            // VACUUM cannot run inside a transaction, so it follows the committed move.
+            if (moved > 0) {
+                try {
+                    db.execSQL("VACUUM");
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+            // CLOSE THE DATABASE CONNECTION
+            db.close();
+
+            written(OFFERINGS_TABLE);
+            if (moved > 0) {
+                mStrings.clear();
+                if (mStats.isLoaded())
+                    rebuildStats();
+            }
+            return moved;
+        } finally {
+            DBTrace.endSection();
+        }
+    }
+
+    /**
+     * deleteArchive deletes the archive database and every offering in it.
+     * @return true if an archive existed and was deleted
+     */
+    public boolean deleteArchive() {
+        boolean deleted;
+        synchronized (sArchiveLock) {
+            deleted = mContext.deleteDatabase(ARCHIVE_DATABASE_NAME);
+        }
+        written(OFFERINGS_TABLE);
+        mStrings.clear();
+        return deleted;
+    }
+
+    /**
+     * attachArchive attaches the archive database to a connection as "archive".
+     * @param db an open database reference, not in a transaction
+     * @param create true to create the archive file and its table if missing
+     * @return true if attached, false if there is no archive and create was false
+     */
+    private boolean attachArchive(SQLiteDatabase db, boolean create) {
+        File archive = mContext.getDatabasePath(ARCHIVE_DATABASE_NAME);
+        if (!create && !archive.exists())
+            return false;
+        db.execSQL("ATTACH DATABASE ? AS " + ARCHIVE_ALIAS, new Object[]{archive.getPath()});
+        if (create) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS " + ARCHIVE_ALIAS + "." + OFFERINGS_TABLE + "("
+                    + FIELD_CRN + " INTEGER, "
+                    + FIELD_SEMESTER_CODE + " INTEGER, "
+                    + FIELD_COURSE_ID + " INTEGER, "
+                    + FIELD_INSTRUCTOR_ID + " INTEGER, "
+                    + FIELD_MEETING_DAYS + " TEXT, "
+                    + FIELD_START_TIME + " INTEGER, "
+                    + FIELD_END_TIME + " INTEGER)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS " + ARCHIVE_ALIAS + ".archive_semester ON "
+                    + OFFERINGS_TABLE + " (" + FIELD_SEMESTER_CODE + ")");
+        }
+        return true;
+    }
+
+    private static void detachArchive(SQLiteDatabase db) {
+        db.execSQL("DETACH DATABASE " + ARCHIVE_ALIAS);
+    }
 
     //********** IMPORT FROM CSV OPERATIONS:  Courses, Instructors and Offerings
     //COMPLETED:  Write the code for the import OfferingsFromCSV method.
 
+    /**
+     * importCatalogFromCSV imports the three csv assets of a catalog as one unit.
+     *
+     * Steps:
+     * 1) Begin a transaction.
+     * 2) Read the courses, instructors and offerings files, in that order, through a
+     * CatalogValidator, which checks every row (malformed rows, duplicate ids and CRNs, and
+     * offerings whose course or instructor is not in the other two files) and passes the
+     * valid ones to be inserted.
+     * 3) Commit the transaction only if the validator found no problem at all, otherwise
+     * roll it back so the database is left exactly as it was.
+     * 4) bump the generations and rebuild the CatalogStats summary.
+     *
+     * Unlike the single-file imports, a bad row is not skipped: it makes the whole import
+     * fail, and the returned report says which rows were at fault.  The ids are checked
+     * against the files, not the database, so this is meant for loading a complete catalog
+     * into empty tables.
+     * @param coursesFile name of the courses csv asset
+     * @param instructorsFile name of the instructors csv asset
+     * @param offeringsFile name of the offerings csv asset
+     * @return the ImportReport; the import was committed if and only if it is valid
+     */
+    ImportReport importCatalogFromCSV(String coursesFile, String instructorsFile,
+                                      String offeringsFile) {
+        DBTrace.beginSection("DBHelper.importCatalogFromCSV");
+        try {
+            CatalogValidator validator = new CatalogValidator(mStrings);
+            final SQLiteDatabase db = this.getWritableDatabase();
+            CatalogValidator.Sink sink = new CatalogValidator.Sink() {
+                @Override
+                public boolean course(Course course) {
+                    return db.insert(COURSES_TABLE, null, courseValues(course)) != -1;
+                }
+
+                @Override
+                public boolean instructor(Instructor instructor) {
+                    return db.insert(INSTRUCTORS_TABLE, null, instructorValues(instructor)) != -1;
+                }
+
+                @Override
+                public void offering(CatalogCsv.OfferingRow row) {
+                    db.insert(OFFERINGS_TABLE, null, offeringValues(row.crn, row.semesterCode,
+                            row.courseId, row.instructorId, row.meetingDays, row.startTime,
+                            row.endTime));
+                }
+            };
+
+            db.beginTransaction();
+            try {
+                String[] files = {coursesFile, instructorsFile, offeringsFile};
+                for (int i = 0; i < files.length; i++) {
+                    BufferedReader buffer = null;
+                    DBTrace.beginSection("import:" + files[i]);
+                    try {
+                        buffer = new BufferedReader(
+                                new InputStreamReader(openCatalogAsset(files[i])));
+                        switch (i) {
+                            case 0:
+                                validator.readCourses(files[i], buffer, sink);
+                                break;
+                            case 1:
+                                validator.readInstructors(files[i], buffer, sink);
+                                break;
+                            default:
+                                validator.readOfferings(files[i], buffer, sink);
+                        }
+                    } catch (IOException e) {
+                        validator.getReport().addProblem(ImportReport.Kind.UNREADABLE_FILE,
+                                files[i], 0, String.valueOf(e.getMessage()));
+                    } finally {
+                        if (buffer != null)
+                            closeQuietly(buffer);
+                        DBTrace.endSection();
+                    }
+                }
+                if (validator.getReport().isValid())
+                    db.setTransactionSuccessful();
+            } finally {
+                DBTrace.beginSection("import:commit");
+                try {
+                    db.endTransaction();
+                } finally {
+                    DBTrace.endSection();
+                }
+            }
+            // CLOSE THE DATABASE CONNECTION
+            db.close();
+
+            ImportReport report = validator.getReport();
+            if (!report.isValid())
+                Log.w("OCC Course Finder", report.toString());
+            written(COURSES_TABLE);
+            written(INSTRUCTORS_TABLE);
+            written(OFFERINGS_TABLE);
+            rebuildStats();
+            return report;
+        } finally {
+            DBTrace.endSection();
+        }
+    }
+
     /**
      * importOfferingsFromCSV accepts a string argument which represents the name of the
      * csv file asset we are importing data from.
      *
      * Steps:
-     * 1) Instantiate an AssetManager object by get(ting)Assets from the current context.
-     * 2) Declare an inputStream.
-     * 3) Using a try catch block, open the AssetManager object using the csvFile name argument
-     * and store the resulting inputStream.
-     * 4) Instantiate a BufferedReader object using a new InputStreamReader instantiated
+     * 1) Declare an inputStream.
+     * 2) Using a try catch block, open the asset with openCatalogAsset, which finds and
+     * decompresses a .gz copy if that is what the APK ships, and store the resulting
+     * inputStream.
+     * 3) Instantiate a BufferedReader object using a new InputStreamReader instantiated
      * using the inputStream as an argument.
-     * 5) In a try catch block, while the BufferedReader object is not null, addOfferings
-     * to the Offerings table using lines read from the BufferedReader.
-     * 6) return true if successful
+     * 4) In a try catch block, while the BufferedReader object is not null, addOfferings
+     * to the Offerings table using lines read from the BufferedReader.  Each line holds the
+     * crn, semester code, course id and instructor id, optionally followed by the meeting
+     * days and the start and end times as HH:MM (or TBA).
+     * 5) rebuild the CatalogStats summary and return true if successful
      * @param csvFile name of the csv file
      * @return true is successful
      */
     boolean importOfferingsFromCSV(String csvFile) {
-        AssetManager manager = mContext.getAssets();
         InputStream inputStream;
         try {
-            inputStream = manager.open(csvFile);
+            inputStream = openCatalogAsset(csvFile);
         } catch (IOException e) {
             e.printStackTrace();
             return false;
         }
-        BufferedReader buffer = new BufferedReader(new InputStreamReader(inputStream));
-        String line;
+        return importOfferings(inputStream);
+    }
+
+    /**
+     * importOfferingsFromCSV reads offerings.csv rows from any InputStream, such as a
+     * generated catalog file, and closes the stream when done.  Gzip compressed
+     * data is recognized by its magic bytes and decompressed as it is read.
+     * @param inputStream the csv data
+     * @return true is successful
+     */
+    boolean importOfferingsFromCSV(InputStream inputStream) {
+        InputStream csv;
         try {
-            while ((line = buffer.readLine()) != null) {
-                String[] fields = line.split(",");
-                if (fields.length != 4) {
-                    Log.d("OCC Course Finder", "Skipping Bad CSV Row: " + Arrays.toString(fields));
-                    continue;
-                }
-                int crn = Integer.parseInt(fields[0].trim());
-                int semesterCode = Integer.parseInt(fields[1].trim());
-                Long courseId = Long.parseLong(fields[2].trim());
-                Long instructorId = Long.parseLong(fields[3].trim());
-                addOffering(crn, semesterCode, courseId, instructorId);
-            }
+            csv = CatalogCodec.decode(null, inputStream);
         } catch (IOException e) {
             e.printStackTrace();
+            closeQuietly(inputStream);
             return false;
         }
-        return true;
+        return importOfferings(csv);
+    }
+
+    /**
+     * importOfferings reads offerings.csv rows from csv text that the caller has already decoded,
+     * once, where the file name is known, and closes the stream when done.
+     * @param csv the csv text
+     * @return true is successful
+     */
+    private boolean importOfferings(InputStream csv) {
+        DBTrace.beginSection("DBHelper.importOfferingsFromCSV");
+        try {
+            BufferedReader buffer = new BufferedReader(new InputStreamReader(csv));
+            String line;
+            try {
+                while ((line = buffer.readLine()) != null) {
+                    CatalogCsv.OfferingRow row = CatalogCsv.parseOffering(line, mStrings);
+                    if (row == null) {
+                        Log.d("OCC Course Finder", "Skipping Bad CSV Row: " + line);
+                        continue;
+                    }
+                    addOffering(row.crn, row.semesterCode, row.courseId, row.instructorId,
+                            row.meetingDays, row.startTime, row.endTime);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+                return false;
+            } finally {
+                closeQuietly(buffer);
+            }
+            rebuildStats();
+            return true;
+        } finally {
+            DBTrace.endSection();
+        }
     }
 
     /**
@@ -582,48 +1637,79 @@ class DBHelper extends SQLiteOpenHelper {
      * csv file asset we are importing data from.
      *
      * Steps:
-     * 1) Instantiate an AssetManager object by get(ting)Assets from the current context.
-     * 2) Declare an inputStream.
-     * 3) Using a try catch block, open the AssetManager object using the csvFile name argument
-     * and store the resulting inputStream.
-     * 4) Instantiate a BufferedReader object using a new InputStreamReader instantiated
+     * 1) Declare an inputStream.
+     * 2) Using a try catch block, open the asset with openCatalogAsset, which finds and
+     * decompresses a .gz copy if that is what the APK ships, and store the resulting
+     * inputStream.
+     * 3) Instantiate a BufferedReader object using a new InputStreamReader instantiated
      * using the inputStream as an argument.
-     * 5) In a try catch block, while the BufferedReader object is not null, addCourses
+     * 4) In a try catch block, while the BufferedReader object is not null, addCourses
      * to the Courses table using lines read from the BufferedReader.
-     * 6) return true if successful
+     * 5) rebuild the CatalogStats summary and return true if successful
      * @param csvFileName name of the csv file
      * @return true is successful
      */
     boolean importCoursesFromCSV(String csvFileName) {
-        AssetManager manager = mContext.getAssets();
         InputStream inStream;
         try {
-            inStream = manager.open(csvFileName);
+            inStream = openCatalogAsset(csvFileName);
         } catch (IOException e) {
             e.printStackTrace();
             return false;
         }
+        return importCourses(inStream);
+    }
 
-        BufferedReader buffer = new BufferedReader(new InputStreamReader(inStream));
-        String line;
+    /**
+     * importCoursesFromCSV reads courses.csv rows from any InputStream, such as a
+     * generated catalog file, and closes the stream when done.  Gzip compressed
+     * data is recognized by its magic bytes and decompressed as it is read.
+     * @param inStream the csv data
+     * @return true is successful
+     */
+    boolean importCoursesFromCSV(InputStream inStream) {
+        InputStream csv;
         try {
-            while ((line = buffer.readLine()) != null) {
-                String[] fields = line.split(",");
-                if (fields.length != 4) {
-                    Log.d("OCC Course Finder", "Skipping Bad CSV Row: " + Arrays.toString(fields));
-                    continue;
-                }
-                int id = Integer.parseInt(fields[0].trim());
-                String alpha = fields[1].trim();
-                String number = fields[2].trim();
-                String title = fields[3].trim();
-                addCourse(new Course(id, alpha, number, title));
-            }
+            csv = CatalogCodec.decode(null, inStream);
         } catch (IOException e) {
             e.printStackTrace();
+            closeQuietly(inStream);
             return false;
         }
-        return true;
+        return importCourses(csv);
+    }
+
+    /**
+     * importCourses reads courses.csv rows from csv text that the caller has already decoded,
+     * once, where the file name is known, and closes the stream when done.
+     * @param csv the csv text
+     * @return true is successful
+     */
+    private boolean importCourses(InputStream csv) {
+        DBTrace.beginSection("DBHelper.importCoursesFromCSV");
+        try {
+            BufferedReader buffer = new BufferedReader(new InputStreamReader(csv));
+            String line;
+            try {
+                while ((line = buffer.readLine()) != null) {
+                    Course course = CatalogCsv.parseCourse(line, mStrings);
+                    if (course == null) {
+                        Log.d("OCC Course Finder", "Skipping Bad CSV Row: " + line);
+                        continue;
+                    }
+                    addCourse(course);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+                return false;
+            } finally {
+                closeQuietly(buffer);
+            }
+            rebuildStats();
+            return true;
+        } finally {
+            DBTrace.endSection();
+        }
     }
 
     /**
@@ -631,47 +1717,114 @@ class DBHelper extends SQLiteOpenHelper {
      * csv file asset we are importing data from.
      *
      * Steps:
-     * 1) Instantiate an AssetManager object by get(ting)Assets from the current context.
-     * 2) Declare an inputStream.
-     * 3) Using a try catch block, open the AssetManager object using the csvFile name argument
-     * and store the resulting inputStream.
-     * 4) Instantiate a BufferedReader object using a new InputStreamReader instantiated
+     * 1) Declare an inputStream.
+     * 2) Using a try catch block, open the asset with openCatalogAsset, which finds and
+     * decompresses a .gz copy if that is what the APK ships, and store the resulting
+     * inputStream.
+     * 3) Instantiate a BufferedReader object using a new InputStreamReader instantiated
      * using the inputStream as an argument.
-     * 5) In a try catch block, while the BufferedReader object is not null, addInstructors
+     * 4) In a try catch block, while the BufferedReader object is not null, addInstructors
      * to the Instructors table using lines read from the BufferedReader.
-     * 6) return true if successful
+     * 5) rebuild the CatalogStats summary and return true if successful
      * @param csvFileName name of the csv file
      * @return true is successful
      */
     boolean importInstructorsFromCSV(String csvFileName) {
-        AssetManager am = mContext.getAssets();
-        InputStream inStream = null;
+        InputStream inStream;
         try {
-            inStream = am.open(csvFileName);
+            inStream = openCatalogAsset(csvFileName);
         } catch (IOException e) {
             e.printStackTrace();
+            return false;
         }
+        return importInstructors(inStream);
+    }
 
-        BufferedReader buffer = new BufferedReader(new InputStreamReader(inStream));
-        String line;
+    /**
+     * importInstructorsFromCSV reads instructors.csv rows from any InputStream, such as a
+     * generated catalog file, and closes the stream when done.  Gzip compressed
+     * data is recognized by its magic bytes and decompressed as it is read.
+     * @param inStream the csv data
+     * @return true is successful
+     */
+    boolean importInstructorsFromCSV(InputStream inStream) {
+        InputStream csv;
         try {
-            while ((line = buffer.readLine()) != null) {
-                String[] fields = line.split(",");
-                if (fields.length != 4) {
-                    Log.d("OCC Course Finder", "Skipping Bad CSV Row: " + Arrays.toString(fields));
+            csv = CatalogCodec.decode(null, inStream);
+        } catch (IOException e) {
+            e.printStackTrace();
+            closeQuietly(inStream);
+            return false;
+        }
+        return importInstructors(csv);
+    }
+
+    /**
+     * importInstructors reads instructors.csv rows from csv text that the caller has already
+     * decoded, once, where the file name is known, and closes the stream when done.
+     * @param csv the csv text
+     * @return true is successful
+     */
+    private boolean importInstructors(InputStream csv) {
+        DBTrace.beginSection("DBHelper.importInstructorsFromCSV");
+        try {
+            BufferedReader buffer = new BufferedReader(new InputStreamReader(csv));
+            String line;
+            try {
+                while ((line = buffer.readLine()) != null) {
+                    Instructor instructor = CatalogCsv.parseInstructor(line, mStrings);
+                    if (instructor == null) {
+                        Log.d("OCC Course Finder", "Skipping Bad CSV Row: " + line);
+                        continue;
+                    }
+                    addInstructor(instructor);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+                return false;
+            } finally {
+                closeQuietly(buffer);
+            }
+            rebuildStats();
+            return true;
+        } finally {
+            DBTrace.endSection();
+        }
+    }
+
+    /**
+     * openCatalogAsset opens a csv asset, e.g. "offerings.csv", as plain text.  If the asset
+     * itself is missing, the compressed "offerings.csv.gz" is opened instead and decompressed
+     * as it is read.
+     * @param csvFileName name of the csv asset
+     * @return a stream of the csv text
+     * @throws IOException if no version of the asset can be opened
+     */
+    private InputStream openCatalogAsset(String csvFileName) throws IOException {
+        DBTrace.checkNotMainThread("open " + csvFileName);
+        AssetManager manager = mContext.getAssets();
+        try {
+            return CatalogCodec.decode(csvFileName, manager.open(csvFileName));
+        } catch (FileNotFoundException missing) {
+            for (CatalogCodec codec : CatalogCodec.values()) {
+                if (codec == CatalogCodec.NONE)
                     continue;
+                String name = csvFileName + codec.getExtension();
+                try {
+                    return codec.wrap(manager.open(name));
+                } catch (FileNotFoundException e) {
+                    // try the next codec
                 }
-                int id = Integer.parseInt(fields[0].trim());
-                String lastName = fields[1].trim();
-                String firstName = fields[2].trim();
-                String email = fields[3].trim();
-                addInstructor(new Instructor(id, lastName, firstName, email));
             }
+            throw missing;
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
         } catch (IOException e) {
             e.printStackTrace();
-            return false;
         }
-        return true;
     }
-
 }
@@ -0,0 +1,105 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import android.os.Looper;
+import android.support.v4.os.TraceCompat;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * DBTrace marks the work of DBHelper and of the app's startup as named sections of a
+ * system trace, e.g.
+ *
+ * python systrace.py -a edu.orangecoastcollege.cs273.occcoursefinder sched freq am
+ *
+ * shows "DBHelper.getAllOfferings" or "import:offerings.csv" as slices on the thread that
+ * ran them.  Sections cost next to nothing while no trace is being recorded.
+ *
+ * DBTrace also guards the main thread: DBHelper calls checkNotMainThread before touching
+ * the disk, which, depending on the MainThreadPolicy, does nothing, logs a warning naming
+ * the section that did it (once per section) or throws an IllegalStateException.  Debug
+ * builds log by default; release builds ignore.
+ */
+final class DBTrace {
+
+    /**
+     * MainThreadPolicy is what to do when the disk is accessed from the main thread.
+     */
+    enum MainThreadPolicy {
+        IGNORE, LOG, THROW
+    }
+
+    private static final String TAG = "DBTrace";
+    // Trace section names are limited to 127 characters.
+    private static final int MAX_SECTION_LENGTH = 127;
+
+    private static volatile MainThreadPolicy sPolicy =
+            BuildConfig.DEBUG ? MainThreadPolicy.LOG : MainThreadPolicy.IGNORE;
+    // Open sections of the main thread, only touched from the main thread.
+    private static final List<String> sMainThreadSections = new ArrayList<>();
+    private static final HashSet<String> sReported = new HashSet<>();
+
+    private DBTrace() {
+    }
+
+    /**
+     * beginSection starts a named trace section on the current thread.  Every call must be
+     * matched by a call to endSection on the same thread, in a finally block.
+     * @param name the name of the section, e.g. "DBHelper.addCourse"
+     */
+    static void beginSection(String name) {
+        if (name.length() > MAX_SECTION_LENGTH)
+            name = name.substring(0, MAX_SECTION_LENGTH);
+        TraceCompat.beginSection(name);
+        if (isMainThread())
+            sMainThreadSections.add(name);
+    }
+
+    /**
+     * endSection ends the most recent section started on the current thread.
+     */
+    static void endSection() {
+        if (isMainThread() && !sMainThreadSections.isEmpty())
+            sMainThreadSections.remove(sMainThreadSections.size() - 1);
+        TraceCompat.endSection();
+    }
+
+    /**
+     * setMainThreadPolicy chooses what checkNotMainThread does, e.g. THROW in a test that
+     * must prove the UI never waits on the database.
+     * @param policy the new policy
+     */
+    static void setMainThreadPolicy(MainThreadPolicy policy) {
+        sPolicy = policy;
+    }
+
+    static MainThreadPolicy getMainThreadPolicy() {
+        return sPolicy;
+    }
+
+    /**
+     * checkNotMainThread applies the MainThreadPolicy if it is called on the main thread.
+     * @param access what is about to happen, e.g. "getWritableDatabase"
+     */
+    static void checkNotMainThread(String access) {
+        MainThreadPolicy policy = sPolicy;
+        if (policy == MainThreadPolicy.IGNORE || !isMainThread())
+            return;
+        String section = sMainThreadSections.isEmpty() ? access
+                : sMainThreadSections.get(sMainThreadSections.size() - 1);
+        String message = "Disk access on the main thread: " + access + " in " + section;
+        if (policy == MainThreadPolicy.THROW)
+            throw new IllegalStateException(message);
+        synchronized (sReported) {
+            if (!sReported.add(section))
+                return;
+        }
+        Log.w(TAG, message, new Throwable("stack of " + section));
+    }
+
+    private static boolean isMainThread() {
+        return Looper.myLooper() == Looper.getMainLooper();
+    }
+}
@@ -0,0 +1,363 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+/**
+ * The <code>FuzzySearchIndex</code> class finds offerings by course title or instructor name
+ * even when the query is misspelled, e.g. "Progamming" or "Gilbret".
+ *
+ * Every word of every course title and instructor name is a term, and every term is indexed
+ * by its trigrams (with '$' marking the word boundaries, so "java" gives "$ja", "jav", "ava"
+ * and "va$").  A query word is looked up as follows:
+ * 1) Its trigrams select the candidate terms.  One edit can destroy at most four trigrams
+ * (a swap of two neighbouring letters touches every trigram that holds either of them), so
+ * a term sharing fewer than (query trigrams - 4 * max edits) cannot match and is never
+ * looked at.  A short word can lose all its trigrams that way ("tarn" shares none with
+ * "tran"); such a word is compared with every term that is long enough instead.
+ * 2) Each candidate is scored by edit distance (insert, delete, substitute or swap two
+ * neighbouring letters), abandoning the computation as soon as it exceeds the allowed
+ * number of edits.  A query that is a prefix of a term also matches, so "prog" finds
+ * "Programming".
+ * 3) The score of a course or instructor is the sum of the best distance of each query word
+ * among its terms, and an offering takes the better score of its course and instructor.
+ * The best K offerings are kept in a bounded heap.
+ *
+ * The index is a read-only snapshot of the catalog it was built from.
+ */
+class FuzzySearchIndex {
+
+    private static final char BOUNDARY = '$';
+
+    private final List<Offering> mOfferings;
+    private final String[] mTerms;
+    private final HashMap<String, int[]> mTermsByTrigram;
+    // Owners of each term: course index, or -(instructor index) - 1.
+    private final int[][] mTermOwners;
+    private final int[][] mOfferingsByCourse;
+    private final int[][] mOfferingsByInstructor;
+
+    /**
+     * FuzzySearchIndex is a parameterized constructor that indexes a catalog.
+     * @param courses every Course to index by title
+     * @param instructors every Instructor to index by first and last name
+     * @param offerings every Offering that search may return
+     */
+    FuzzySearchIndex(List<Course> courses, List<Instructor> instructors, List<Offering> offerings) {
+        mOfferings = new ArrayList<>(offerings);
+
+        HashMap<Long, Integer> courseIndexes = new HashMap<>();
+        for (int i = 0; i < courses.size(); i++)
+            courseIndexes.put(courses.get(i).getId(), i);
+        HashMap<Long, Integer> instructorIndexes = new HashMap<>();
+        for (int i = 0; i < instructors.size(); i++)
+            instructorIndexes.put(instructors.get(i).getId(), i);
+
+        HashMap<String, Integer> termIds = new HashMap<>();
+        List<IntList> termOwners = new ArrayList<>();
+        for (int i = 0; i < courses.size(); i++)
+            addTerms(courses.get(i).getTitle(), i, termIds, termOwners);
+        for (int i = 0; i < instructors.size(); i++) {
+            addTerms(instructors.get(i).getFirstName(), -i - 1, termIds, termOwners);
+            addTerms(instructors.get(i).getLastName(), -i - 1, termIds, termOwners);
+        }
+
+        mTerms = new String[termIds.size()];
+        for (String term : termIds.keySet())
+            mTerms[termIds.get(term)] = term;
+        mTermOwners = new int[termOwners.size()][];
+        for (int i = 0; i < mTermOwners.length; i++)
+            mTermOwners[i] = termOwners.get(i).toArray();
+
+        HashMap<String, IntList> byTrigram = new HashMap<>();
+        for (int termId = 0; termId < mTerms.length; termId++) {
+            for (String trigram : trigrams(mTerms[termId])) {
+                IntList ids = byTrigram.get(trigram);
+                if (ids == null) {
+                    ids = new IntList();
+                    byTrigram.put(trigram, ids);
+                }
+                if (ids.size == 0 || ids.get(ids.size - 1) != termId)
+                    ids.add(termId);
+            }
+        }
+        mTermsByTrigram = new HashMap<>(byTrigram.size() * 2);
+        for (String trigram : byTrigram.keySet())
+            mTermsByTrigram.put(trigram, byTrigram.get(trigram).toArray());
+
+        IntList[] byCourse = new IntList[courses.size()];
+        IntList[] byInstructor = new IntList[instructors.size()];
+        for (int i = 0; i < mOfferings.size(); i++) {
+            Offering offering = mOfferings.get(i);
+            Integer course = (offering.getCourse() == null) ? null
+                    : courseIndexes.get(offering.getCourse().getId());
+            if (course != null)
+                add(byCourse, course, i);
+            Integer instructor = (offering.getInstructor() == null) ? null
+                    : instructorIndexes.get(offering.getInstructor().getId());
+            if (instructor != null)
+                add(byInstructor, instructor, i);
+        }
+        mOfferingsByCourse = toArrays(byCourse);
+        mOfferingsByInstructor = toArrays(byInstructor);
+    }
+
+    /**
+     * build indexes the whole catalog held by a CatalogStore.
+     * @param store the store to read
+     * @return the index
+     */
+    static FuzzySearchIndex build(CatalogStore store) {
+        return new FuzzySearchIndex(store.getAllCourses(), store.getAllInstructors(),
+                store.getAllOfferings());
+    }
+
+    /**
+     * search returns the (at most) k offerings whose course title or instructor name best
+     * matches the query, best match first.  Ties are broken by CRN.
+     * @param query one or more words, possibly misspelled
+     * @param k the maximum number of offerings to return, at least 1
+     * @return the best matching Offerings
+     * @throws IllegalArgumentException if k is not positive
+     */
+    List<Offering> search(String query, int k) {
+        if (k <= 0)
+            throw new IllegalArgumentException("k must be positive: " + k);
+        String[] words = words(query);
+        if (words.length == 0)
+            return new ArrayList<>();
+
+        // Best distance of each query word for every course / instructor that matched any.
+        HashMap<Integer, int[]> ownerDistances = new HashMap<>();
+        for (int w = 0; w < words.length; w++) {
+            String word = words[w];
+            int maxEdits = maxEdits(word);
+            for (int termId : candidates(word, maxEdits)) {
+                int distance = score(word, mTerms[termId], maxEdits);
+                if (distance > maxEdits)
+                    continue;
+                for (int owner : mTermOwners[termId]) {
+                    int[] distances = ownerDistances.get(owner);
+                    if (distances == null) {
+                        distances = new int[words.length];
+                        for (int i = 0; i < words.length; i++)
+                            distances[i] = maxEdits(words[i]) + 1;
+                        ownerDistances.put(owner, distances);
+                    }
+                    distances[w] = Math.min(distances[w], distance);
+                }
+            }
+        }
+
+        // Best (lowest) score of every offering reached through a matching owner.
+        HashMap<Integer, Integer> offeringScores = new HashMap<>();
+        for (Integer owner : ownerDistances.keySet()) {
+            int score = 0;
+            for (int distance : ownerDistances.get(owner))
+                score += distance;
+            int[] offerings = (owner >= 0) ? mOfferingsByCourse[owner]
+                    : mOfferingsByInstructor[-owner - 1];
+            for (int offering : offerings) {
+                Integer previous = offeringScores.get(offering);
+                if (previous == null || score < previous)
+                    offeringScores.put(offering, score);
+            }
+        }
+
+        // Keep the k best in a heap whose head is the worst of them; it never holds more than
+        // one offering beyond the smaller of k and the number that matched.
+        final HashMap<Integer, Integer> scores = offeringScores;
+        Comparator<Integer> worstFirst = new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                int byScore = scores.get(b) - scores.get(a);
+                if (byScore != 0)
+                    return byScore;
+                return mOfferings.get(b).getCRN() - mOfferings.get(a).getCRN();
+            }
+        };
+        PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(k, scores.size()) + 1, worstFirst);
+        for (Integer offering : offeringScores.keySet()) {
+            if (best.size() < k) {
+                best.add(offering);
+            } else if (worstFirst.compare(offering, best.peek()) > 0) {
+                best.poll();
+                best.add(offering);
+            }
+        }
+
+        List<Integer> ranked = new ArrayList<>(best);
+        Collections.sort(ranked, Collections.reverseOrder(worstFirst));
+        List<Offering> results = new ArrayList<>(ranked.size());
+        for (int offering : ranked)
+            results.add(mOfferings.get(offering));
+        return results;
+    }
+
+    /**
+     * candidates returns the terms sharing enough trigrams with the word to possibly be
+     * within maxEdits of it, or to start with it.
+     */
+    private int[] candidates(String word, int maxEdits) {
+        List<String> grams = trigrams(word);
+        // A prefix match loses only the trailing boundary trigram of the word.
+        int required = Math.min(grams.size() - 4 * maxEdits, grams.size() - 1);
+        if (required <= 0 && maxEdits > 0) {
+            // The edits may leave no trigram in common: every term could match but a shorter
+            // one that even maxEdits insertions cannot bring up to the word's length.
+            IntList result = new IntList();
+            for (int termId = 0; termId < mTerms.length; termId++)
+                if (mTerms[termId].length() >= word.length() - maxEdits)
+                    result.add(termId);
+            return result.toArray();
+        }
+        required = Math.max(1, required);
+        HashMap<Integer, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            int[] termIds = mTermsByTrigram.get(gram);
+            if (termIds == null)
+                continue;
+            for (int termId : termIds) {
+                Integer count = shared.get(termId);
+                shared.put(termId, (count == null) ? 1 : count + 1);
+            }
+        }
+        IntList result = new IntList();
+        for (Integer termId : shared.keySet())
+            if (shared.get(termId) >= required)
+                result.add(termId);
+        return result.toArray();
+    }
+
+    /**
+     * score is the edit distance between the word and the term, or between the word and
+     * the start of the term when the word is at least three letters long.
+     */
+    private static int score(String word, String term, int maxEdits) {
+        int distance = distance(word, term, maxEdits);
+        if (distance > 0 && word.length() >= 3 && term.length() > word.length())
+            distance = Math.min(distance,
+                    distance(word, term.substring(0, word.length()), maxEdits));
+        return distance;
+    }
+
+    /**
+     * distance returns the optimal string alignment distance between a and b (Levenshtein
+     * plus swaps of neighbouring letters), or maxEdits + 1 as soon as it is certain to be
+     * more than maxEdits.
+     */
+    static int distance(String a, String b, int maxEdits) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > maxEdits)
+            return maxEdits + 1;
+        int[] previous2 = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++)
+            previous[j] = j;
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = (a.charAt(i - 1) == b.charAt(j - 1)) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1),
+                        previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2)
+                        && a.charAt(i - 2) == b.charAt(j - 1))
+                    value = Math.min(value, previous2[j - 2] + 1);
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits)
+                return maxEdits + 1;
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[m], maxEdits + 1);
+    }
+
+    private static int maxEdits(String word) {
+        if (word.length() <= 2)
+            return 0;
+        return (word.length() <= 5) ? 1 : 2;
+    }
+
+    static List<String> trigrams(String word) {
+        String padded = BOUNDARY + word + BOUNDARY;
+        List<String> grams = new ArrayList<>(padded.length());
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            String gram = padded.substring(i, i + 3);
+            if (!grams.contains(gram))
+                grams.add(gram);
+        }
+        return grams;
+    }
+
+    private static String[] words(String text) {
+        if (text == null)
+            return new String[0];
+        String[] words = text.toLowerCase(Locale.US).split("[^\\p{L}\\p{Nd}#+]+");
+        List<String> nonEmpty = new ArrayList<>(Arrays.asList(words));
+        nonEmpty.removeAll(Collections.singleton(""));
+        return nonEmpty.toArray(new String[nonEmpty.size()]);
+    }
+
+    private static void addTerms(String text, int owner, HashMap<String, Integer> termIds,
+                                 List<IntList> termOwners) {
+        for (String word : words(text)) {
+            Integer termId = termIds.get(word);
+            if (termId == null) {
+                termId = termIds.size();
+                termIds.put(word, termId);
+                termOwners.add(new IntList());
+            }
+            IntList owners = termOwners.get(termId);
+            if (owners.size == 0 || owners.get(owners.size - 1) != owner)
+                owners.add(owner);
+        }
+    }
+
+    private static void add(IntList[] lists, int index, int value) {
+        if (lists[index] == null)
+            lists[index] = new IntList();
+        lists[index].add(value);
+    }
+
+    private static int[][] toArrays(IntList[] lists) {
+        int[][] arrays = new int[lists.length][];
+        for (int i = 0; i < lists.length; i++)
+            arrays[i] = (lists[i] == null) ? new int[0] : lists[i].toArray();
+        return arrays;
+    }
+
+    /**
+     * IntList is a growable int array, to keep the posting lists free of boxed Integers.
+     */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length)
+                values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
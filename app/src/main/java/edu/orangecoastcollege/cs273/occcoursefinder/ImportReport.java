@@ -0,0 +1,153 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ImportReport is the outcome of validating a catalog import: how many rows of each file
+ * were read and every problem found, each with the file, line number and text of the
+ * offending row.  An import is committed only if its report is valid, i.e. has no problems.
+ *
+ * Every problem is counted, but only the first MAX_PROBLEMS are kept in detail, so a badly
+ * broken file cannot fill the memory with its report.
+ */
+class ImportReport {
+
+    /**
+     * Kind is the type of a problem found during an import.
+     */
+    enum Kind {
+        MALFORMED_ROW,
+        DUPLICATE_COURSE_ID,
+        DUPLICATE_INSTRUCTOR_ID,
+        DUPLICATE_CRN,
+        UNKNOWN_COURSE_ID,
+        UNKNOWN_INSTRUCTOR_ID,
+        UNREADABLE_FILE
+    }
+
+    /**
+     * Problem is one problem found during an import.
+     */
+    static final class Problem {
+        final Kind kind;
+        final String file;
+        final int line;
+        final String row;
+
+        Problem(Kind kind, String file, int line, String row) {
+            this.kind = kind;
+            this.file = file;
+            this.line = line;
+            this.row = row;
+        }
+
+        @Override
+        public String toString() {
+            return file + ":" + line + " " + kind + " [" + row + "]";
+        }
+    }
+
+    static final int MAX_PROBLEMS = 100;
+
+    private final List<Problem> mProblems = new ArrayList<>();
+    private final int[] mCounts = new int[Kind.values().length];
+    private int mProblemCount;
+    private int mCourseCount;
+    private int mInstructorCount;
+    private int mOfferingCount;
+
+    /**
+     * addProblem records a problem.
+     * @param kind the type of problem
+     * @param file the name of the file it was found in
+     * @param line the 1-based line number, or 0 if it concerns the whole file
+     * @param row the text of the row, or a description of the problem
+     */
+    void addProblem(Kind kind, String file, int line, String row) {
+        mCounts[kind.ordinal()]++;
+        mProblemCount++;
+        if (mProblems.size() < MAX_PROBLEMS)
+            mProblems.add(new Problem(kind, file, line, row));
+    }
+
+    void countCourse() {
+        mCourseCount++;
+    }
+
+    void countInstructor() {
+        mInstructorCount++;
+    }
+
+    void countOffering() {
+        mOfferingCount++;
+    }
+
+    /**
+     * isValid tests whether the import found no problem at all.
+     * @return true if the import can be committed
+     */
+    boolean isValid() {
+        return mProblemCount == 0;
+    }
+
+    /**
+     * getProblemCount returns the number of problems found.
+     * @return the number of problems, including those not kept in detail
+     */
+    int getProblemCount() {
+        return mProblemCount;
+    }
+
+    /**
+     * getProblemCount returns the number of problems of one kind.
+     * @param kind the type of problem
+     * @return the number of problems of that kind
+     */
+    int getProblemCount(Kind kind) {
+        return mCounts[kind.ordinal()];
+    }
+
+    /**
+     * getProblems returns the first MAX_PROBLEMS problems, in the order they were found.
+     * @return the problems
+     */
+    List<Problem> getProblems() {
+        return Collections.unmodifiableList(mProblems);
+    }
+
+    int getCourseCount() {
+        return mCourseCount;
+    }
+
+    int getInstructorCount() {
+        return mInstructorCount;
+    }
+
+    int getOfferingCount() {
+        return mOfferingCount;
+    }
+
+    /**
+     * toString summarizes the report on one line, followed by one line per problem kept.
+     * @return the summary
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(isValid() ? "Valid import: " : "Invalid import: ")
+                .append(mCourseCount).append(" courses, ")
+                .append(mInstructorCount).append(" instructors, ")
+                .append(mOfferingCount).append(" offerings, ")
+                .append(mProblemCount).append(" problems");
+        for (Kind kind : Kind.values())
+            if (mCounts[kind.ordinal()] > 0)
+                text.append(", ").append(kind).append(" x").append(mCounts[kind.ordinal()]);
+        for (Problem problem : mProblems)
+            text.append('\n').append(problem);
+        if (mProblemCount > mProblems.size())
+            text.append("\n... ").append(mProblemCount - mProblems.size()).append(" more");
+        return text.toString();
+    }
+}
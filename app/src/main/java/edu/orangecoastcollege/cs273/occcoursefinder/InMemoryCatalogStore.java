@@ -0,0 +1,384 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * InMemoryCatalogStore is the pure Java engine of the CatalogStore interface.  The catalog
+ * lives in hash maps indexed by course id, instructor id and CRN, so every lookup is a hash
+ * probe and nothing touches the disk.  It runs on a plain JVM, which makes it the engine of
+ * choice for read-only kiosks, local unit tests and benchmarks.
+ *
+ * Reads share a read lock and may run concurrently; writes take the write lock.  Courses,
+ * instructors and offerings are stored as private copies and every read returns new
+ * objects, so callers may modify what they get back without changing the store.  Strings
+ * are interned through a StringPool once, when they are written; reads copy the stored,
+ * already pooled strings and never touch the pool.
+ */
+class InMemoryCatalogStore implements CatalogStore {
+
+    /**
+     * OfferingRow is the stored form of an offering, referring to its course and
+     * instructor by id just like a row of the Offerings table.
+     */
+    private static final class OfferingRow {
+        final long rowId;
+        final int crn;
+        final int semesterCode;
+        final long courseId;
+        final long instructorId;
+        final String meetingDays;
+        final int startTime;
+        final int endTime;
+
+        OfferingRow(long rowId, int crn, int semesterCode, long courseId, long instructorId,
+                    String meetingDays, int startTime, int endTime) {
+            this.rowId = rowId;
+            this.crn = crn;
+            this.semesterCode = semesterCode;
+            this.courseId = courseId;
+            this.instructorId = instructorId;
+            this.meetingDays = (meetingDays == null) ? "" : meetingDays;
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+    }
+
+    private final ReadWriteLock mLock = new ReentrantReadWriteLock();
+    private final LinkedHashMap<Long, Course> mCourses = new LinkedHashMap<>();
+    private final LinkedHashMap<Long, Instructor> mInstructors = new LinkedHashMap<>();
+    private final LinkedHashMap<Long, OfferingRow> mOfferings = new LinkedHashMap<>();
+    private final HashMap<Integer, List<OfferingRow>> mOfferingsByCrn = new HashMap<>();
+    private final StringPool mStrings = new StringPool();
+    private long mMaxCourseId;
+    private long mMaxInstructorId;
+    private long mNextOfferingRowId;
+
+    //********** COURSES
+
+    @Override
+    public void addCourse(Course course) {
+        mLock.writeLock().lock();
+        try {
+            long id = (course.getId() > 0) ? course.getId() : mMaxCourseId + 1;
+            if (mCourses.containsKey(id))
+                return;
+            mCourses.put(id, pooled(id, course));
+            mMaxCourseId = Math.max(mMaxCourseId, id);
+        } finally {
+            mLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Course> getAllCourses() {
+        mLock.readLock().lock();
+        try {
+            List<Course> courses = new ArrayList<>(mCourses.size());
+            for (Course course : mCourses.values())
+                courses.add(copy(course));
+            return courses;
+        } finally {
+            mLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Course getCourse(long id) {
+        mLock.readLock().lock();
+        try {
+            Course course = mCourses.get(id);
+            return (course == null) ? null : copy(course);
+        } finally {
+            mLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void updateCourse(Course course) {
+        mLock.writeLock().lock();
+        try {
+            if (mCourses.containsKey(course.getId()))
+                mCourses.put(course.getId(), pooled(course.getId(), course));
+        } finally {
+            mLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteCourse(Course course) {
+        mLock.writeLock().lock();
+        try {
+            mCourses.remove(course.getId());
+        } finally {
+            mLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteAllCourses() {
+        mLock.writeLock().lock();
+        try {
+            mCourses.clear();
+        } finally {
+            mLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * pooled makes the stored copy of a course, with its strings taken from the pool.  This is
+     * the only place courses are interned, so reads never contend on the pool.
+     */
+    private Course pooled(long id, Course course) {
+        return new Course(id, mStrings.intern(course.getAlpha()),
+                mStrings.intern(course.getNumber()), mStrings.intern(course.getTitle()));
+    }
+
+    /**
+     * copy makes the copy of a stored course handed to a reader, sharing its pooled strings.
+     */
+    private static Course copy(Course stored) {
+        return new Course(stored.getId(), stored.getAlpha(), stored.getNumber(), stored.getTitle());
+    }
+
+    //********** INSTRUCTORS
+
+    @Override
+    public void addInstructor(Instructor instructor) {
+        mLock.writeLock().lock();
+        try {
+            long id = (instructor.getId() > 0) ? instructor.getId() : mMaxInstructorId + 1;
+            if (mInstructors.containsKey(id))
+                return;
+            mInstructors.put(id, pooled(id, instructor));
+            mMaxInstructorId = Math.max(mMaxInstructorId, id);
+        } finally {
+            mLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Instructor> getAllInstructors() {
+        mLock.readLock().lock();
+        try {
+            List<Instructor> instructors = new ArrayList<>(mInstructors.size());
+            for (Instructor instructor : mInstructors.values())
+                instructors.add(copy(instructor));
+            return instructors;
+        } finally {
+            mLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Instructor getInstructor(long id) {
+        mLock.readLock().lock();
+        try {
+            Instructor instructor = mInstructors.get(id);
+            return (instructor == null) ? null : copy(instructor);
+        } finally {
+            mLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void updateInstructor(Instructor instructor) {
+        mLock.writeLock().lock();
+        try {
+            if (mInstructors.containsKey(instructor.getId()))
+                mInstructors.put(instructor.getId(), pooled(instructor.getId(), instructor));
+        } finally {
+            mLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteInstructor(Instructor instructor) {
+        mLock.writeLock().lock();
+        try {
+            mInstructors.remove(instructor.getId());
+        } finally {
+            mLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteAllInstructors() {
+        mLock.writeLock().lock();
+        try {
+            mInstructors.clear();
+        } finally {
+            mLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * pooled makes the stored copy of an instructor, with its strings taken from the pool.
+     */
+    private Instructor pooled(long id, Instructor instructor) {
+        return new Instructor(id, mStrings.intern(instructor.getLastName()),
+                mStrings.intern(instructor.getFirstName()), mStrings.intern(instructor.getEmail()));
+    }
+
+    /**
+     * copy makes the copy of a stored instructor handed to a reader, sharing its pooled strings.
+     */
+    private static Instructor copy(Instructor stored) {
+        return new Instructor(stored.getId(), stored.getLastName(), stored.getFirstName(),
+                stored.getEmail());
+    }
+
+    //********** OFFERINGS
+
+    @Override
+    public void addOffering(int crn, int semesterCode, long courseId, long instructorId) {
+        addOffering(crn, semesterCode, courseId, instructorId, "", -1, -1);
+    }
+
+    @Override
+    public void addOffering(int crn, int semesterCode, long courseId, long instructorId,
+                            String meetingDays, int startTime, int endTime) {
+        mLock.writeLock().lock();
+        try {
+            OfferingRow row = new OfferingRow(mNextOfferingRowId++, crn, semesterCode, courseId,
+                    instructorId, mStrings.intern(meetingDays), startTime, endTime);
+            mOfferings.put(row.rowId, row);
+            List<OfferingRow> sameCrn = mOfferingsByCrn.get(crn);
+            if (sameCrn == null) {
+                sameCrn = new ArrayList<>(1);
+                mOfferingsByCrn.put(crn, sameCrn);
+            }
+            sameCrn.add(row);
+        } finally {
+            mLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Offering> getAllOfferings() {
+        mLock.readLock().lock();
+        try {
+            return hydrate(mOfferings.values(), null, -1, -1, false);
+        } finally {
+            mLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Offering getOffering(long crn) {
+        mLock.readLock().lock();
+        try {
+            List<OfferingRow> sameCrn = (crn < Integer.MIN_VALUE || crn > Integer.MAX_VALUE)
+                    ? null : mOfferingsByCrn.get((int) crn);
+            if (sameCrn == null)
+                return null;
+            return hydrate(sameCrn.subList(0, 1), null, -1, -1, false).get(0);
+        } finally {
+            mLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void updateOffering(Offering offering) {
+        long courseId = offering.getCourse().getId();
+        long instructorId = offering.getInstructor().getId();
+        String meetingDays = mStrings.intern(offering.getMeetingDays());
+        mLock.writeLock().lock();
+        try {
+            List<OfferingRow> sameCrn = mOfferingsByCrn.get(offering.getCRN());
+            if (sameCrn == null)
+                return;
+            for (int i = 0; i < sameCrn.size(); i++) {
+                OfferingRow updated = new OfferingRow(sameCrn.get(i).rowId, offering.getCRN(),
+                        offering.getSemesterCode(), courseId, instructorId, meetingDays,
+                        offering.getStartTime(), offering.getEndTime());
+                mOfferings.put(updated.rowId, updated);
+                sameCrn.set(i, updated);
+            }
+        } finally {
+            mLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteOffering(Offering offering) {
+        mLock.writeLock().lock();
+        try {
+            List<OfferingRow> sameCrn = mOfferingsByCrn.remove(offering.getCRN());
+            if (sameCrn == null)
+                return;
+            for (OfferingRow row : sameCrn)
+                mOfferings.remove(row.rowId);
+        } finally {
+            mLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteAllOfferings() {
+        mLock.writeLock().lock();
+        try {
+            mOfferings.clear();
+            mOfferingsByCrn.clear();
+        } finally {
+            mLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Offering> searchOfferings(String alpha, int semesterCode, long instructorId) {
+        if (alpha != null && alpha.trim().isEmpty())
+            alpha = null;
+        mLock.readLock().lock();
+        try {
+            return hydrate(mOfferings.values(), (alpha == null) ? null : alpha.trim(), semesterCode,
+                    instructorId, true);
+        } finally {
+            mLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * hydrate builds Offerings for the rows matching the criteria.  Offerings of the same
+     * course or instructor share one Course or Instructor object.
+     * Must be called with the read lock held.
+     * @param joinOnly true to skip rows whose course or instructor does not exist
+     */
+    private List<Offering> hydrate(Collection<OfferingRow> rows, String alpha, int semesterCode,
+                                   long instructorId, boolean joinOnly) {
+        HashMap<Long, Course> courses = new HashMap<>();
+        HashMap<Long, Instructor> instructors = new HashMap<>();
+        List<Offering> offerings = new ArrayList<>();
+        for (OfferingRow row : rows) {
+            if (semesterCode != -1 && row.semesterCode != semesterCode)
+                continue;
+            if (instructorId != -1 && row.instructorId != instructorId)
+                continue;
+            Course stored = mCourses.get(row.courseId);
+            Instructor storedInstructor = mInstructors.get(row.instructorId);
+            if (joinOnly && (stored == null || storedInstructor == null))
+                continue;
+            if (alpha != null && !alpha.equalsIgnoreCase(stored.getAlpha()))
+                continue;
+
+            Course course = courses.get(row.courseId);
+            if (course == null && stored != null) {
+                course = copy(stored);
+                courses.put(row.courseId, course);
+            }
+            Instructor instructor = instructors.get(row.instructorId);
+            if (instructor == null && storedInstructor != null) {
+                instructor = copy(storedInstructor);
+                instructors.put(row.instructorId, instructor);
+            }
+            offerings.add(new Offering(row.crn, row.semesterCode, course, instructor,
+                    row.meetingDays, row.startTime, row.endTime));
+        }
+        return offerings;
+    }
+}
@@ -4,6 +4,9 @@ package edu.orangecoastcollege.cs273.occcoursefinder;
  * The <code>Instructor</code> class represents an individual instructor at Orange Coast College,
  * including the instructor's last name, first name and email address.
  *
+ * DBHelper passes every field through its StringPool, so the Instructor objects hydrated
+ * once per Offering share a single instance of each name and email.
+ *
  * @author Michael Paulding
  */
 public class Instructor {
@@ -0,0 +1,117 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+/**
+ * The <code>IntervalTree</code> class is an immutable set of half-open [start, end) integer
+ * intervals that answers "does anything overlap this interval?" by skipping every subtree
+ * whose latest end is before the query start.
+ *
+ * Each node is keyed by its start and augmented with the largest end in its subtree.
+ * insert copies only the path from the root to the new node and returns a new tree, so the
+ * ScheduleBuilder can try a section, recurse, and backtrack simply by going on with the
+ * tree it had before.
+ */
+final class IntervalTree {
+
+    static final IntervalTree EMPTY = new IntervalTree(null, 0);
+
+    private final Node mRoot;
+    private final int mSize;
+
+    private static final class Node {
+        final int start;
+        final int end;
+        final int maxEnd;
+        final Node left;
+        final Node right;
+
+        Node(int start, int end, Node left, Node right) {
+            this.start = start;
+            this.end = end;
+            this.left = left;
+            this.right = right;
+            int max = end;
+            if (left != null && left.maxEnd > max)
+                max = left.maxEnd;
+            if (right != null && right.maxEnd > max)
+                max = right.maxEnd;
+            this.maxEnd = max;
+        }
+    }
+
+    private IntervalTree(Node root, int size) {
+        mRoot = root;
+        mSize = size;
+    }
+
+    int size() {
+        return mSize;
+    }
+
+    /**
+     * insert returns a tree holding every interval of this one plus [start, end).
+     * @param start inclusive start of the interval
+     * @param end exclusive end of the interval
+     * @return the new tree; this tree is unchanged
+     */
+    IntervalTree insert(int start, int end) {
+        if (end <= start)
+            throw new IllegalArgumentException("Empty interval [" + start + ", " + end + ")");
+        return new IntervalTree(insert(mRoot, start, end), mSize + 1);
+    }
+
+    /**
+     * insertAll returns a tree with every [start, end) pair of the flattened intervals added.
+     * @param intervals start/end pairs, as returned by Offering.getWeeklyIntervals
+     * @return the new tree; this tree is unchanged
+     */
+    IntervalTree insertAll(int[] intervals) {
+        Node root = mRoot;
+        for (int i = 0; i < intervals.length; i += 2)
+            root = insert(root, intervals[i], intervals[i + 1]);
+        return new IntervalTree(root, mSize + intervals.length / 2);
+    }
+
+    private static Node insert(Node node, int start, int end) {
+        if (node == null)
+            return new Node(start, end, null, null);
+        if (start < node.start)
+            return new Node(node.start, node.end, insert(node.left, start, end), node.right);
+        return new Node(node.start, node.end, node.left, insert(node.right, start, end));
+    }
+
+    /**
+     * overlaps returns true if any interval in the tree shares at least one point
+     * with [start, end).  Intervals that merely touch (one ends as the other starts)
+     * do not overlap.
+     * @param start inclusive start of the query
+     * @param end exclusive end of the query
+     * @return true on overlap
+     */
+    boolean overlaps(int start, int end) {
+        Node node = mRoot;
+        while (node != null) {
+            if (node.start < end && start < node.end)
+                return true;
+            // Anything on the left can only overlap if some interval there ends after start;
+            // otherwise only the right subtree (starts >= node.start) can still overlap.
+            if (node.left != null && node.left.maxEnd > start)
+                node = node.left;
+            else
+                node = node.right;
+        }
+        return false;
+    }
+
+    /**
+     * overlapsAny returns true if any [start, end) pair of the flattened intervals overlaps
+     * an interval in the tree.
+     * @param intervals start/end pairs, as returned by Offering.getWeeklyIntervals
+     * @return true on overlap
+     */
+    boolean overlapsAny(int[] intervals) {
+        for (int i = 0; i < intervals.length; i += 2)
+            if (overlaps(intervals[i], intervals[i + 1]))
+                return true;
+        return false;
+    }
+}
@@ -0,0 +1,123 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import java.util.Arrays;
+
+/**
+ * LongHashSet is a set of primitive longs, stored in one open-addressed array instead of a
+ * HashSet of boxed Longs.  It is used to hold the ids seen during an import, where a
+ * catalog of 100,000 offerings would otherwise allocate 100,000 Long and entry objects.
+ *
+ * Zero marks an empty slot, so the value 0 itself is tracked by a separate flag.
+ */
+class LongHashSet {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] mSlots;
+    private int mSize;
+    private boolean mHasZero;
+
+    /**
+     * LongHashSet is the default constructor, sized for a few dozen values.
+     */
+    LongHashSet() {
+        this(16);
+    }
+
+    /**
+     * LongHashSet is a parameterized constructor that sizes the set for an expected number
+     * of values, so it never grows while they are added.
+     * @param expectedSize the number of values expected
+     */
+    LongHashSet(int expectedSize) {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR < expectedSize)
+            capacity <<= 1;
+        mSlots = new long[capacity];
+    }
+
+    /**
+     * add adds a value to the set.
+     * @param value the value to add
+     * @return true if the value was not already in the set
+     */
+    boolean add(long value) {
+        if (value == 0) {
+            if (mHasZero)
+                return false;
+            mHasZero = true;
+            mSize++;
+            return true;
+        }
+        int mask = mSlots.length - 1;
+        int slot = hash(value) & mask;
+        while (mSlots[slot] != 0) {
+            if (mSlots[slot] == value)
+                return false;
+            slot = (slot + 1) & mask;
+        }
+        mSlots[slot] = value;
+        mSize++;
+        if (mSize > mSlots.length * LOAD_FACTOR)
+            grow();
+        return true;
+    }
+
+    /**
+     * contains tests whether a value is in the set.
+     * @param value the value to look for
+     * @return true if the value was added
+     */
+    boolean contains(long value) {
+        if (value == 0)
+            return mHasZero;
+        int mask = mSlots.length - 1;
+        int slot = hash(value) & mask;
+        while (mSlots[slot] != 0) {
+            if (mSlots[slot] == value)
+                return true;
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * size returns the number of values in the set.
+     * @return the number of values
+     */
+    int size() {
+        return mSize;
+    }
+
+    /**
+     * clear removes every value, keeping the capacity.
+     */
+    void clear() {
+        Arrays.fill(mSlots, 0L);
+        mSize = 0;
+        mHasZero = false;
+    }
+
+    private void grow() {
+        long[] old = mSlots;
+        mSlots = new long[old.length * 2];
+        int mask = mSlots.length - 1;
+        for (long value : old) {
+            if (value == 0)
+                continue;
+            int slot = hash(value) & mask;
+            while (mSlots[slot] != 0)
+                slot = (slot + 1) & mask;
+            mSlots[slot] = value;
+        }
+    }
+
+    /**
+     * hash spreads the bits of a value (a Fibonacci hash), so that consecutive ids do not
+     * fill consecutive slots.
+     */
+    private static int hash(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -1,24 +1,47 @@
 package edu.orangecoastcollege.cs273.occcoursefinder;
 
+import java.util.Arrays;
+import java.util.Locale;
+
 /**
  * The <code>Offering</code> class represents a single course offering at Orange Coast College,
  * including its CRN (course registration number), semester code (a number with the year and
  * semester), the <code>Course</code> it is mapped to and the <code>Instructor</code> teaching
  * this offering of the course.
  *
+ * An offering also has its meeting time: the days it meets (e.g. "MW" or "TR", using
+ * M T W R F S U for Monday through Sunday) and the start and end times in minutes after
+ * midnight.  Offerings without a scheduled time (online or TBA) have empty meeting days and
+ * a start and end time of -1.
+ *
  * @author Michael Paulding
  */
 public class Offering {
+    static final String DAY_CODES = "MTWRFSU";
+    static final String TBA = "TBA";
+    static final int MINUTES_PER_DAY = 24 * 60;
+
     private int mCRN;
     private int mSemesterCode;
     private Course mCourse;
     private Instructor mInstructor;
+    private String mMeetingDays;
+    private int mStartTime;
+    private int mEndTime;
 
-    public Offering(int CRN, int semesterCode, Course course, Instructor instructor) {
+    public Offering(int CRN, int semesterCode, Course course, Instructor instructor,
+                    String meetingDays, int startTime, int endTime) {
         mCRN = CRN;
         mSemesterCode = semesterCode;
         mCourse = course;
         mInstructor = instructor;
+        mMeetingDays = (meetingDays == null) ? "" : meetingDays;
+        mStartTime = startTime;
+        mEndTime = endTime;
+    }
+
+    public Offering(int CRN, int semesterCode, Course course, Instructor instructor) {
+        this(CRN, semesterCode, course, instructor, "", -1, -1);
     }
 
 
@@ -54,6 +77,93 @@ public class Offering {
         mInstructor = instructor;
     }
 
+    public String getMeetingDays() {
+        return mMeetingDays;
+    }
+
+    public void setMeetingDays(String meetingDays) {
+        mMeetingDays = (meetingDays == null) ? "" : meetingDays;
+    }
+
+    public int getStartTime() {
+        return mStartTime;
+    }
+
+    public void setStartTime(int startTime) {
+        mStartTime = startTime;
+    }
+
+    public int getEndTime() {
+        return mEndTime;
+    }
+
+    public void setEndTime(int endTime) {
+        mEndTime = endTime;
+    }
+
+    /**
+     * hasMeetingTime returns true if this offering meets on at least one day at a known time.
+     * @return false for online or TBA offerings
+     */
+    public boolean hasMeetingTime() {
+        return !mMeetingDays.isEmpty() && mStartTime >= 0 && mEndTime > mStartTime;
+    }
+
+    /**
+     * getWeeklyIntervals returns the meetings of this offering as [start, end) pairs of
+     * minutes since Monday 00:00, one pair per meeting day, e.g. MW 08:00-09:15 becomes
+     * {480, 555, 1920, 1995}.
+     * @return the flattened start/end pairs, empty if there is no meeting time
+     */
+    int[] getWeeklyIntervals() {
+        if (!hasMeetingTime())
+            return new int[0];
+        int[] intervals = new int[2 * mMeetingDays.length()];
+        int count = 0;
+        for (int i = 0; i < mMeetingDays.length(); i++) {
+            int day = DAY_CODES.indexOf(mMeetingDays.charAt(i));
+            if (day < 0)
+                continue;
+            intervals[count++] = day * MINUTES_PER_DAY + mStartTime;
+            intervals[count++] = day * MINUTES_PER_DAY + mEndTime;
+        }
+        return (count == intervals.length) ? intervals : Arrays.copyOf(intervals, count);
+    }
+
+    /**
+     * parseTime converts a clock time such as "09:30" into minutes after midnight.
+     * 24:00 is accepted as the end of the day, but no later time: a meeting must not spill
+     * into the next day of getWeeklyIntervals.
+     * @param time the time as HH:MM, or TBA / empty for no time
+     * @return minutes after midnight, or -1 for TBA
+     */
+    static int parseTime(String time) {
+        time = time.trim();
+        if (time.isEmpty() || TBA.equalsIgnoreCase(time))
+            return -1;
+        int colon = time.indexOf(':');
+        if (colon < 0)
+            throw new NumberFormatException("Expected HH:MM but was " + time);
+        int hours = Integer.parseInt(time.substring(0, colon));
+        int minutes = Integer.parseInt(time.substring(colon + 1));
+        if (hours < 0 || hours > 24 || minutes < 0 || minutes > 59
+                || (hours == 24 && minutes != 0))
+            throw new NumberFormatException("Invalid time " + time);
+        return hours * 60 + minutes;
+    }
+
+    /**
+     * formatTime converts minutes after midnight back into the HH:MM form used by the
+     * csv files.
+     * @param minutes minutes after midnight, or -1
+     * @return the time as HH:MM, or TBA for -1
+     */
+    static String formatTime(int minutes) {
+        if (minutes < 0)
+            return TBA;
+        return String.format(Locale.US, "%02d:%02d", minutes / 60, minutes % 60);
+    }
+
     @Override
     public String toString() {
         return "Offering{" +
@@ -61,6 +171,9 @@ public class Offering {
                 ", SemesterCode=" + mSemesterCode +
                 ", Course=" + mCourse +
                 ", Instructor=" + mInstructor +
+                ", MeetingDays='" + mMeetingDays + '\'' +
+                ", StartTime=" + formatTime(mStartTime) +
+                ", EndTime=" + formatTime(mEndTime) +
                 '}';
     }
 }
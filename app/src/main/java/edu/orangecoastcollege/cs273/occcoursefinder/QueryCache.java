@@ -0,0 +1,160 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The <code>QueryCache</code> class is a bounded, least-recently-used cache of query results
+ * keyed by normalized query parameters.
+ *
+ * Every entry is stored with the write generation of the data it was read from.  DBHelper
+ * bumps a generation counter on every add, update, delete or import, so an entry whose
+ * generation no longer matches is stale: it is dropped and reported as a miss rather than
+ * being served.
+ *
+ * @param <V> the type of the cached results
+ */
+class QueryCache<V> {
+
+    private final int mMaxEntries;
+    private final LruMap<V> mEntries;
+    private long mHits;
+    private long mMisses;
+
+    private static final class CachedValue<V> {
+        final long generation;
+        final V value;
+
+        CachedValue(long generation, V value) {
+            this.generation = generation;
+            this.value = value;
+        }
+    }
+
+    /**
+     * LruMap is an access-ordered LinkedHashMap that evicts its eldest entry once it holds
+     * more than maxEntries, counting the evictions.
+     */
+    private static final class LruMap<V> extends LinkedHashMap<String, CachedValue<V>> {
+        private static final long serialVersionUID = 1L;
+
+        private final int mMaxEntries;
+        private long mEvictions;
+
+        LruMap(int maxEntries) {
+            super(16, 0.75f, true);
+            mMaxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedValue<V>> eldest) {
+            if (size() > mMaxEntries) {
+                mEvictions++;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * QueryCache is a parameterized constructor that accepts the maximum number of entries
+     * to keep.  Once full, the least recently used entry is evicted for each new one.
+     * @param maxEntries the size bound of the cache
+     */
+    QueryCache(int maxEntries) {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        mMaxEntries = maxEntries;
+        mEntries = new LruMap<>(maxEntries);
+    }
+
+    /**
+     * key builds a normalized cache key from query parameters: strings are trimmed and
+     * upper-cased, null becomes an empty field, and the fields are joined with '|'.
+     * @param parts the query parameters
+     * @return the normalized key
+     */
+    static String key(Object... parts) {
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0)
+                key.append('|');
+            Object part = parts[i];
+            if (part instanceof String)
+                key.append(((String) part).trim().toUpperCase(Locale.US));
+            else if (part != null)
+                key.append(part);
+        }
+        return key.toString();
+    }
+
+    /**
+     * get returns the value cached under key if it was stored at the given generation,
+     * otherwise null.  A stale entry is removed.
+     * @param key normalized query key
+     * @param generation current write generation of the data behind the query
+     * @return the cached value, or null on a miss
+     */
+    synchronized V get(String key, long generation) {
+        CachedValue<V> entry = mEntries.get(key);
+        if (entry == null || entry.generation != generation) {
+            if (entry != null)
+                mEntries.remove(key);
+            mMisses++;
+            return null;
+        }
+        mHits++;
+        return entry.value;
+    }
+
+    /**
+     * put caches a value under key, stamped with the generation it was read at.
+     * @param key normalized query key
+     * @param generation write generation the value was read at
+     * @param value the query result
+     */
+    synchronized void put(String key, long generation, V value) {
+        mEntries.put(key, new CachedValue<>(generation, value));
+    }
+
+    synchronized void clear() {
+        mEntries.clear();
+    }
+
+    synchronized int size() {
+        return mEntries.size();
+    }
+
+    synchronized long getHitCount() {
+        return mHits;
+    }
+
+    synchronized long getMissCount() {
+        return mMisses;
+    }
+
+    synchronized long getEvictionCount() {
+        return mEntries.mEvictions;
+    }
+
+    /**
+     * getHitRatio returns the fraction of get calls that were served from the cache.
+     * @return hits / (hits + misses), or 0 before the first lookup
+     */
+    synchronized double getHitRatio() {
+        long lookups = mHits + mMisses;
+        return (lookups == 0) ? 0.0 : (double) mHits / lookups;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "QueryCache{" +
+                "Size=" + mEntries.size() +
+                ", MaxEntries=" + mMaxEntries +
+                ", Hits=" + mHits +
+                ", Misses=" + mMisses +
+                ", Evictions=" + mEntries.mEvictions +
+                '}';
+    }
+}
@@ -0,0 +1,163 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * The <code>ScheduleBuilder</code> class answers "which sections of these N courses fit
+ * together without overlap".  Each candidate schedule is one Offering per course such that
+ * no two meetings overlap during the week.
+ *
+ * The search is a backtracking search with three kinds of pruning:
+ * 1) Sections of a course that meet at exactly the same times are interchangeable, so they
+ * are grouped into one time slot and the search only chooses between slots.
+ * 2) The course with the fewest remaining slots is always chosen next.
+ * 3) After each choice the remaining slots of every other course are checked against an
+ * IntervalTree of the meetings chosen so far; slots that now conflict are dropped, and the
+ * branch is abandoned as soon as any course has none left.
+ *
+ * Offerings without a meeting time (online or TBA) never conflict with anything.  A section
+ * (CRN and semester) is never used twice in one schedule, even if it is a candidate for two
+ * of the courses.
+ */
+class ScheduleBuilder {
+
+    /**
+     * A time slot: the sections of one course that share the same weekly meetings.
+     */
+    private static final class Slot {
+        final int[] intervals;
+        final List<Offering> sections = new ArrayList<>();
+
+        Slot(int[] intervals) {
+            this.intervals = intervals;
+        }
+    }
+
+    private final List<List<Slot>> mCourses = new ArrayList<>();
+    private final List<List<Offering>> mSchedules = new ArrayList<>();
+    private int mMaxSchedules;
+
+    /**
+     * ScheduleBuilder is a parameterized constructor that accepts the sections of each
+     * course to schedule, one list per course.
+     * @param sectionsPerCourse the candidate Offerings for each course
+     */
+    ScheduleBuilder(List<List<Offering>> sectionsPerCourse) {
+        for (List<Offering> sections : sectionsPerCourse) {
+            LinkedHashMap<String, Slot> slots = new LinkedHashMap<>();
+            for (Offering section : sections) {
+                int[] intervals = section.getWeeklyIntervals();
+                String key = Arrays.toString(intervals);
+                Slot slot = slots.get(key);
+                if (slot == null) {
+                    slot = new Slot(intervals);
+                    slots.put(key, slot);
+                }
+                slot.sections.add(section);
+            }
+            mCourses.add(new ArrayList<>(slots.values()));
+        }
+    }
+
+    /**
+     * findSchedules returns up to maxSchedules conflict-free schedules.  Each schedule holds
+     * one Offering per course, in the order the courses were given to the constructor.
+     * @param maxSchedules the maximum number of schedules to return
+     * @return the conflict-free schedules, empty if there are none
+     */
+    List<List<Offering>> findSchedules(int maxSchedules) {
+        mSchedules.clear();
+        mMaxSchedules = maxSchedules;
+        if (maxSchedules <= 0 || mCourses.isEmpty())
+            return new ArrayList<>(mSchedules);
+        for (List<Slot> slots : mCourses)
+            if (slots.isEmpty())
+                return new ArrayList<>(mSchedules);
+
+        search(new ArrayList<>(mCourses), new Slot[mCourses.size()], IntervalTree.EMPTY);
+        return new ArrayList<>(mSchedules);
+    }
+
+    /**
+     * search picks a slot for the most constrained unscheduled course, forward-checks the
+     * others against the meetings chosen so far, and recurses.
+     * @param remaining the slots still possible for each course (null once scheduled)
+     * @param chosen the slot chosen for each scheduled course
+     * @param busy the meetings of the chosen slots
+     */
+    private void search(List<List<Slot>> remaining, Slot[] chosen, IntervalTree busy) {
+        int next = -1;
+        for (int i = 0; i < remaining.size(); i++) {
+            List<Slot> slots = remaining.get(i);
+            if (slots != null && (next == -1 || slots.size() < remaining.get(next).size()))
+                next = i;
+        }
+        if (next == -1) {
+            expand(chosen, 0, new Offering[chosen.length]);
+            return;
+        }
+
+        for (Slot slot : remaining.get(next)) {
+            IntervalTree nextBusy = busy.insertAll(slot.intervals);
+            List<List<Slot>> nextRemaining = new ArrayList<>(remaining.size());
+            boolean deadEnd = false;
+            for (int i = 0; i < remaining.size() && !deadEnd; i++) {
+                List<Slot> slots = remaining.get(i);
+                if (i == next || slots == null) {
+                    nextRemaining.add(null);
+                    continue;
+                }
+                List<Slot> compatible = new ArrayList<>(slots.size());
+                for (Slot candidate : slots)
+                    if (!nextBusy.overlapsAny(candidate.intervals))
+                        compatible.add(candidate);
+                deadEnd = compatible.isEmpty();
+                nextRemaining.add(compatible);
+            }
+            if (deadEnd)
+                continue;
+
+            chosen[next] = slot;
+            search(nextRemaining, chosen, nextBusy);
+            chosen[next] = null;
+            if (mSchedules.size() >= mMaxSchedules)
+                return;
+        }
+    }
+
+    /**
+     * expand turns one choice of slots into schedules of concrete sections, one for each
+     * combination of the interchangeable sections in those slots.
+     */
+    private void expand(Slot[] chosen, int course, Offering[] schedule) {
+        if (mSchedules.size() >= mMaxSchedules)
+            return;
+        if (course == chosen.length) {
+            mSchedules.add(new ArrayList<>(Arrays.asList(schedule)));
+            return;
+        }
+        for (Offering section : chosen[course].sections) {
+            if (isScheduled(schedule, course, section))
+                continue;
+            schedule[course] = section;
+            expand(chosen, course + 1, schedule);
+            if (mSchedules.size() >= mMaxSchedules)
+                return;
+        }
+    }
+
+    /**
+     * isScheduled returns true if the section is already among the first count sections of
+     * the schedule.
+     */
+    private static boolean isScheduled(Offering[] schedule, int count, Offering section) {
+        for (int i = 0; i < count; i++)
+            if (schedule[i].getCRN() == section.getCRN()
+                    && schedule[i].getSemesterCode() == section.getSemesterCode())
+                return true;
+        return false;
+    }
+}
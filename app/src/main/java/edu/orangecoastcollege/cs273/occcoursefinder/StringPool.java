@@ -0,0 +1,72 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import java.util.HashMap;
+
+/**
+ * The <code>StringPool</code> class deduplicates the strings read from the database and
+ * the csv files.  The catalog repeats the same few values over and over (the alpha "CS",
+ * the titles and names hydrated once per Offering), so instead of keeping a new String for
+ * every row we hand back the first equal instance we have seen.
+ *
+ * Unlike <code>String.intern()</code> the pool belongs to its owner (usually a DBHelper)
+ * and is garbage collected along with it.
+ */
+class StringPool {
+
+    private final HashMap<String, String> mPool = new HashMap<>();
+    private int mRequests;
+    private int mHits;
+
+    /**
+     * intern returns the pooled instance equal to the value argument, adding the value
+     * to the pool if it has not been seen before.  Null is passed through unchanged.
+     * @param value the string to deduplicate
+     * @return the shared instance equal to value
+     */
+    synchronized String intern(String value) {
+        if (value == null)
+            return null;
+        mRequests++;
+        String pooled = mPool.get(value);
+        if (pooled != null) {
+            mHits++;
+            return pooled;
+        }
+        mPool.put(value, value);
+        return value;
+    }
+
+    /**
+     * size returns the number of distinct strings held by the pool.
+     * @return number of distinct strings
+     */
+    synchronized int size() {
+        return mPool.size();
+    }
+
+    /**
+     * getHitCount returns how many calls to intern returned an already pooled instance,
+     * i.e. how many duplicate strings the pool has saved.
+     * @return number of deduplicated strings
+     */
+    synchronized int getHitCount() {
+        return mHits;
+    }
+
+    /**
+     * getRequestCount returns the total number of calls to intern.
+     * @return number of intern requests
+     */
+    synchronized int getRequestCount() {
+        return mRequests;
+    }
+
+    /**
+     * clear empties the pool and resets its counters.
+     */
+    synchronized void clear() {
+        mPool.clear();
+        mRequests = 0;
+        mHits = 0;
+    }
+}
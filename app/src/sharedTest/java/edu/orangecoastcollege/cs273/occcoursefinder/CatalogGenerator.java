@@ -0,0 +1,202 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * CatalogGenerator writes synthetic courses.csv, instructors.csv and offerings.csv files in
+ * the same formats as the bundled assets, at any scale, for load and scaling tests.
+ *
+ * The output depends only on the seed and the sizes, so a failing load test can always be
+ * reproduced.  Each file is generated from its own seeded Random and streamed row by row,
+ * so writing millions of offerings needs no more memory than writing ten.
+ *
+ * The distributions are loosely modelled on a community college catalog: a few subjects
+ * (MATH, ENGL, CS) hold most courses, a few popular courses hold most sections, and recent
+ * semesters have more offerings than old ones.
+ */
+class CatalogGenerator {
+
+    static final String COURSES_FILE = "courses.csv";
+    static final String INSTRUCTORS_FILE = "instructors.csv";
+    static final String OFFERINGS_FILE = "offerings.csv";
+
+    private static final String[] ALPHAS = {"MATH", "ENGL", "CS", "BIOL", "PSYC", "BUS",
+            "HIST", "CHEM", "ART", "KIN", "COMM", "PHYS", "MUS", "SPAN", "SOC", "ECON",
+            "NURS", "ANTH", "GEOG", "PHIL"};
+    private static final int[] ALPHA_WEIGHTS = {14, 14, 12, 8, 8, 8, 7, 6, 6, 6, 6, 5, 5, 5,
+            4, 4, 3, 3, 3, 3};
+    private static final String[] TITLE_LEVELS = {"Introduction to", "Fundamentals of",
+            "Intermediate", "Advanced", "Topics in", "Applied", "Principles of"};
+    private static final String[] TITLE_SUBJECTS = {"Programming", "Algebra", "Composition",
+            "Biology", "Statistics", "Accounting", "World History", "Chemistry", "Drawing",
+            "Fitness", "Public Speaking", "Mechanics", "Music Theory", "Conversation",
+            "Sociology", "Economics", "Anatomy", "Culture", "Geography", "Ethics"};
+    private static final String[] LAST_NAMES = {"Nguyen", "Garcia", "Smith", "Tran", "Lopez",
+            "Johnson", "Kim", "Martinez", "Brown", "Le", "Hernandez", "Davis", "Pham", "Miller",
+            "Gonzalez", "Wilson", "Paulding", "Gilbert", "Ernsberger", "Malaty"};
+    private static final String[] FIRST_NAMES = {"Michael", "Maria", "David", "Linh", "Jose",
+            "Jennifer", "Stephen", "Gabriela", "Martha", "Anh", "Robert", "Susan", "Daniel",
+            "Lisa", "James", "Karen", "Minh", "Laura", "Carlos", "Emily"};
+    private static final String[] DAY_PATTERNS = {"MW", "TR", "MW", "TR", "MWF", "M", "T",
+            "W", "R", "F", "TBA"};
+    private static final String EMAIL_DOMAIN = "@occ.cccd.edu";
+
+    private final long mSeed;
+    private final int mCourseCount;
+    private final int mInstructorCount;
+    private final int mOfferingCount;
+    private final int mSemesterCount;
+
+    /**
+     * CatalogGenerator is a parameterized constructor that accepts the seed and the size of
+     * each table.
+     * @param seed seed of every random choice
+     * @param courseCount number of rows in courses.csv
+     * @param instructorCount number of rows in instructors.csv
+     * @param offeringCount number of rows in offerings.csv
+     * @param semesterCount number of distinct semesters the offerings are spread over
+     */
+    CatalogGenerator(long seed, int courseCount, int instructorCount, int offeringCount,
+                     int semesterCount) {
+        if (courseCount < 1 || instructorCount < 1 || offeringCount < 0 || semesterCount < 1)
+            throw new IllegalArgumentException("Catalog sizes must be positive");
+        mSeed = seed;
+        mCourseCount = courseCount;
+        mInstructorCount = instructorCount;
+        mOfferingCount = offeringCount;
+        mSemesterCount = semesterCount;
+    }
+
+    /**
+     * writeTo writes the three csv files into a directory, replacing any existing ones.
+     * @param directory the directory to write to
+     * @throws IOException if a file cannot be written
+     */
+    void writeTo(File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs())
+            throw new IOException("Could not create " + directory);
+        Writer out = open(new File(directory, COURSES_FILE));
+        try {
+            writeCourses(out);
+        } finally {
+            out.close();
+        }
+        out = open(new File(directory, INSTRUCTORS_FILE));
+        try {
+            writeInstructors(out);
+        } finally {
+            out.close();
+        }
+        out = open(new File(directory, OFFERINGS_FILE));
+        try {
+            writeOfferings(out);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static Writer open(File file) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"),
+                64 * 1024);
+    }
+
+    /**
+     * writeCourses writes courses.csv rows: id,alpha,number,title.  Ids run from 1, and
+     * numbers are unique within each alpha.
+     * @param out where to write the rows
+     * @throws IOException if writing fails
+     */
+    void writeCourses(Writer out) throws IOException {
+        Random random = new Random(mSeed ^ 0xC0115E5L);
+        HashMap<String, Integer> nextNumber = new HashMap<>();
+        int totalWeight = 0;
+        for (int weight : ALPHA_WEIGHTS)
+            totalWeight += weight;
+
+        for (int id = 1; id <= mCourseCount; id++) {
+            String alpha = pickWeighted(random, totalWeight);
+            Integer number = nextNumber.get(alpha);
+            number = (number == null) ? 100 : number + 1 + random.nextInt(3);
+            nextNumber.put(alpha, number);
+            String title = TITLE_LEVELS[random.nextInt(TITLE_LEVELS.length)] + " "
+                    + TITLE_SUBJECTS[random.nextInt(TITLE_SUBJECTS.length)] + " "
+                    + (1 + random.nextInt(3));
+            out.write(id + "," + alpha + ",A" + number + "," + title + "\n");
+        }
+    }
+
+    /**
+     * writeInstructors writes instructors.csv rows: id,last name,first name,email.
+     * Ids run from 1 and every email is unique.
+     * @param out where to write the rows
+     * @throws IOException if writing fails
+     */
+    void writeInstructors(Writer out) throws IOException {
+        Random random = new Random(mSeed ^ 0x1257L);
+        for (int id = 1; id <= mInstructorCount; id++) {
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String email = Character.toLowerCase(firstName.charAt(0))
+                    + lastName.toLowerCase() + id + EMAIL_DOMAIN;
+            out.write(id + "," + lastName + "," + firstName + "," + email + "\n");
+        }
+    }
+
+    /**
+     * writeOfferings writes offerings.csv rows:
+     * crn,semester code,course id,instructor id,days,start,end.
+     * CRNs are unique, courses with low ids get the most sections and recent semesters get
+     * the most offerings.
+     * @param out where to write the rows
+     * @throws IOException if writing fails
+     */
+    void writeOfferings(Writer out) throws IOException {
+        Random random = new Random(mSeed ^ 0x0FF3L);
+        int[] semesterCodes = new int[mSemesterCount];
+        for (int i = 0; i < mSemesterCount; i++) {
+            // Counting back from Fall 2017 (201731) through Summer and Spring of each year.
+            int term = 3 - i % 3;
+            int year = 2017 - i / 3;
+            semesterCodes[mSemesterCount - 1 - i] = year * 100 + term * 10 + 1;
+        }
+
+        StringBuilder row = new StringBuilder(64);
+        for (int i = 0; i < mOfferingCount; i++) {
+            double r = random.nextDouble();
+            int courseId = 1 + (int) (mCourseCount * r * r);
+            int instructorId = 1 + random.nextInt(mInstructorCount);
+            int semesterCode = semesterCodes[(int) (mSemesterCount * Math.sqrt(random.nextDouble()))];
+            String days = DAY_PATTERNS[random.nextInt(DAY_PATTERNS.length)];
+
+            row.setLength(0);
+            row.append(10000 + i).append(',').append(semesterCode).append(',')
+                    .append(courseId).append(',').append(instructorId).append(',');
+            if (Offering.TBA.equals(days)) {
+                row.append("TBA,TBA,TBA");
+            } else {
+                int start = 7 * 60 + 30 * random.nextInt(27);
+                int length = (days.length() == 1) ? 170 : 75;
+                row.append(days).append(',').append(Offering.formatTime(start)).append(',')
+                        .append(Offering.formatTime(start + length));
+            }
+            out.write(row.append('\n').toString());
+        }
+    }
+
+    private static String pickWeighted(Random random, int totalWeight) {
+        int pick = random.nextInt(totalWeight);
+        for (int i = 0; i < ALPHAS.length; i++) {
+            pick -= ALPHA_WEIGHTS[i];
+            if (pick < 0)
+                return ALPHAS[i];
+        }
+        return ALPHAS[ALPHAS.length - 1];
+    }
+}
@@ -0,0 +1,235 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * CatalogStoreConformanceTest is the behaviour every CatalogStore engine must share.
+ * Each engine's test extends it and supplies an empty store: InMemoryCatalogStoreTest runs
+ * it on the JVM and SQLiteCatalogStoreTest runs it against DBHelper on a device.
+ */
+public abstract class CatalogStoreConformanceTest {
+
+    protected CatalogStore mStore;
+
+    /**
+     * createStore returns a new, empty store of the engine under test.
+     */
+    protected abstract CatalogStore createStore() throws Exception;
+
+    @Before
+    public void setUpStore() throws Exception {
+        mStore = createStore();
+        mStore.addCourse(new Course(1, "CS", "A170", "Java Programming 1"));
+        mStore.addCourse(new Course(2, "CS", "A272", "Java Programming 2"));
+        mStore.addCourse(new Course(3, "MATH", "A180", "Calculus 1"));
+        mStore.addInstructor(new Instructor(1, "Ernsberger", "Gabriela", "gernsberger@occ.cccd.edu"));
+        mStore.addInstructor(new Instructor(2, "Paulding", "Michael", "mpaulding@occ.cccd.edu"));
+        mStore.addOffering(36018, 201731, 1, 2, "MW", 480, 555);
+        mStore.addOffering(36123, 201731, 3, 1, "TR", 570, 645);
+        mStore.addOffering(35749, 201810, 2, 2);
+    }
+
+    //********** COURSES
+
+    @Test
+    public void courses_addAndGet() throws Exception {
+        List<Course> courses = mStore.getAllCourses();
+        assertEquals(3, courses.size());
+        assertEquals(1, courses.get(0).getId());
+
+        Course course = mStore.getCourse(3);
+        assertEquals("MATH", course.getAlpha());
+        assertEquals("A180", course.getNumber());
+        assertEquals("Calculus 1", course.getTitle());
+        assertNull(mStore.getCourse(99));
+    }
+
+    @Test
+    public void courses_newIdAssignedWhenMissing() throws Exception {
+        mStore.addCourse(new Course("ENGL", "A100", "Freshman Composition"));
+
+        List<Course> courses = mStore.getAllCourses();
+        assertEquals(4, courses.size());
+        assertEquals(4, courses.get(3).getId());
+        assertEquals("ENGL", mStore.getCourse(4).getAlpha());
+    }
+
+    @Test
+    public void courses_duplicateIdIgnored() throws Exception {
+        mStore.addCourse(new Course(1, "ART", "A100", "Drawing"));
+
+        assertEquals(3, mStore.getAllCourses().size());
+        assertEquals("CS", mStore.getCourse(1).getAlpha());
+    }
+
+    @Test
+    public void courses_updateAndDelete() throws Exception {
+        Course course = mStore.getCourse(2);
+        course.setTitle("Data Structures");
+        mStore.updateCourse(course);
+        assertEquals("Data Structures", mStore.getCourse(2).getTitle());
+
+        mStore.deleteCourse(course);
+        assertNull(mStore.getCourse(2));
+        assertEquals(2, mStore.getAllCourses().size());
+
+        mStore.deleteAllCourses();
+        assertTrue(mStore.getAllCourses().isEmpty());
+    }
+
+    @Test
+    public void courses_returnedObjectsAreCopies() throws Exception {
+        mStore.getCourse(1).setTitle("Changed");
+        assertEquals("Java Programming 1", mStore.getCourse(1).getTitle());
+    }
+
+    //********** INSTRUCTORS
+
+    @Test
+    public void instructors_addGetUpdateDelete() throws Exception {
+        Instructor instructor = mStore.getInstructor(2);
+        assertEquals("Paulding", instructor.getLastName());
+        assertEquals("Michael", instructor.getFirstName());
+        assertEquals("mpaulding@occ.cccd.edu", instructor.getEmail());
+        assertNull(mStore.getInstructor(99));
+
+        instructor.setEmail("michael.paulding@occ.cccd.edu");
+        mStore.updateInstructor(instructor);
+        assertEquals("michael.paulding@occ.cccd.edu", mStore.getInstructor(2).getEmail());
+
+        mStore.deleteInstructor(instructor);
+        assertNull(mStore.getInstructor(2));
+        assertEquals(1, mStore.getAllInstructors().size());
+
+        mStore.deleteAllInstructors();
+        assertTrue(mStore.getAllInstructors().isEmpty());
+    }
+
+    //********** OFFERINGS
+
+    @Test
+    public void offerings_getByCrn() throws Exception {
+        Offering offering = mStore.getOffering(36018);
+        assertEquals(201731, offering.getSemesterCode());
+        assertEquals(1, offering.getCourse().getId());
+        assertEquals("Paulding", offering.getInstructor().getLastName());
+        assertEquals("MW", offering.getMeetingDays());
+        assertEquals(480, offering.getStartTime());
+        assertEquals(555, offering.getEndTime());
+        assertNull(mStore.getOffering(11111));
+    }
+
+    @Test
+    public void offerings_withoutMeetingTimeAreTba() throws Exception {
+        Offering offering = mStore.getOffering(35749);
+        assertFalse(offering.hasMeetingTime());
+        assertEquals("", offering.getMeetingDays());
+        assertEquals(-1, offering.getStartTime());
+    }
+
+    @Test
+    public void offerings_getAllKeepsOrphans() throws Exception {
+        mStore.addOffering(30000, 201731, 42, 2);
+
+        List<Offering> offerings = mStore.getAllOfferings();
+        assertEquals(4, offerings.size());
+        Offering orphan = offerings.get(3);
+        assertEquals(30000, orphan.getCRN());
+        assertNull(orphan.getCourse());
+        assertNotNull(orphan.getInstructor());
+    }
+
+    @Test
+    public void offerings_updateAndDeleteByCrn() throws Exception {
+        Offering offering = mStore.getOffering(36123);
+        offering.setSemesterCode(201810);
+        offering.setStartTime(600);
+        offering.setEndTime(675);
+        mStore.updateOffering(offering);
+
+        Offering updated = mStore.getOffering(36123);
+        assertEquals(201810, updated.getSemesterCode());
+        assertEquals(600, updated.getStartTime());
+
+        mStore.deleteOffering(updated);
+        assertNull(mStore.getOffering(36123));
+        assertEquals(2, mStore.getAllOfferings().size());
+
+        mStore.deleteAllOfferings();
+        assertTrue(mStore.getAllOfferings().isEmpty());
+    }
+
+    @Test
+    public void offerings_deleteRemovesEverySharedCrn() throws Exception {
+        mStore.addOffering(36018, 201810, 2, 1);
+        mStore.deleteOffering(mStore.getOffering(36018));
+
+        assertNull(mStore.getOffering(36018));
+        assertEquals(2, mStore.getAllOfferings().size());
+    }
+
+    //********** SEARCH
+
+    @Test
+    public void search_filtersOnEveryCriterion() throws Exception {
+        assertEquals(3, mStore.searchOfferings(null, -1, -1).size());
+        assertEquals(2, mStore.searchOfferings("cs", -1, -1).size());
+        assertEquals(1, mStore.searchOfferings(" CS ", 201731, -1).size());
+        assertEquals(2, mStore.searchOfferings(null, -1, 2).size());
+        assertEquals(0, mStore.searchOfferings("MATH", 201810, -1).size());
+
+        Offering math = mStore.searchOfferings("MATH", -1, -1).get(0);
+        assertEquals(36123, math.getCRN());
+        assertEquals("Calculus 1", math.getCourse().getTitle());
+        assertEquals("TR", math.getMeetingDays());
+    }
+
+    @Test
+    public void search_skipsOrphans() throws Exception {
+        mStore.addOffering(30000, 201731, 42, 2);
+        assertEquals(3, mStore.searchOfferings(null, -1, -1).size());
+    }
+
+    @Test
+    public void search_seesLaterWrites() throws Exception {
+        assertEquals(2, mStore.searchOfferings("CS", -1, -1).size());
+        mStore.addOffering(30001, 201731, 2, 1);
+        assertEquals(3, mStore.searchOfferings("CS", -1, -1).size());
+
+        Course course = mStore.getCourse(3);
+        course.setAlpha("CS");
+        mStore.updateCourse(course);
+        assertEquals(4, mStore.searchOfferings("CS", -1, -1).size());
+    }
+
+    @Test
+    public void search_returnsCallersOwnCopies() throws Exception {
+        List<Offering> first = mStore.searchOfferings("CS", -1, -1);
+        Collections.sort(first, new Comparator<Offering>() {
+            @Override
+            public int compare(Offering a, Offering b) {
+                return b.getCRN() - a.getCRN();
+            }
+        });
+        assertEquals(36018, first.get(0).getCRN());
+        first.get(0).setMeetingDays("F");
+        first.get(0).getCourse().setTitle("Changed");
+        first.get(0).getInstructor().setLastName("Changed");
+
+        List<Offering> second = mStore.searchOfferings("CS", -1, -1);
+        assertEquals(2, second.size());
+        for (Offering offering : second) {
+            if (offering.getCRN() == 36018)
+                assertEquals("MW", offering.getMeetingDays());
+            assertFalse("Changed".equals(offering.getCourse().getTitle()));
+            assertEquals("Paulding", offering.getInstructor().getLastName());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests of CatalogExporter.
+ */
+public class CatalogExporterTest {
+
+    private static final Course JAVA = new Course(1, "CS", "A170", "Java Programming 1");
+    private static final Instructor PAULDING =
+            new Instructor(3, "Paulding", "Michael", "mpaulding@occ.cccd.edu");
+
+    @Test
+    public void csv_roundTripsThroughImportParser() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CatalogExporter exporter = new CatalogExporter(bytes, CatalogExporter.Format.CSV, false);
+        exporter.writeOffering(new Offering(36018, 201731, JAVA, PAULDING, "MW", 480, 555));
+        exporter.writeOffering(new Offering(35749, 201810, JAVA, PAULDING));
+        exporter.close();
+
+        assertEquals(2, exporter.getRowCount());
+        String[] lines = bytes.toString("UTF-8").split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("36018,201731,1,3,MW,08:00,09:15", lines[0]);
+        assertEquals("35749,201810,1,3,TBA,TBA,TBA", lines[1]);
+
+        CatalogCsv.OfferingRow row = CatalogCsv.parseOffering(lines[0], null);
+        assertEquals(36018, row.crn);
+        assertEquals(201731, row.semesterCode);
+        assertEquals(1, row.courseId);
+        assertEquals(3, row.instructorId);
+        assertEquals("MW", row.meetingDays);
+        assertEquals(480, row.startTime);
+        assertEquals(555, row.endTime);
+
+        row = CatalogCsv.parseOffering(lines[1], null);
+        assertEquals("", row.meetingDays);
+        assertEquals(-1, row.startTime);
+        assertEquals(-1, row.endTime);
+    }
+
+    @Test
+    public void json_writesJoinedRowsAndEscapes() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CatalogExporter exporter = new CatalogExporter(bytes, CatalogExporter.Format.JSON, false);
+        exporter.writeOffering(36018, 201731, 1, "CS", "A170", "Java \"Programming\" 1",
+                3, "Paulding", "Michael", "mpaulding@occ.cccd.edu", "MW", 480, 555);
+        exporter.writeOffering(new Offering(35749, 201810, JAVA, PAULDING));
+        exporter.close();
+
+        String json = bytes.toString("UTF-8");
+        assertTrue(json.startsWith("[\n{\"crn\":36018,\"semesterCode\":201731,"));
+        assertTrue(json.contains("\"course\":{\"id\":1,\"alpha\":\"CS\",\"number\":\"A170\","
+                + "\"title\":\"Java \\\"Programming\\\" 1\"}"));
+        assertTrue(json.contains("\"instructor\":{\"id\":3,\"lastName\":\"Paulding\","
+                + "\"firstName\":\"Michael\",\"email\":\"mpaulding@occ.cccd.edu\"}"));
+        assertTrue(json.contains("\"meetingDays\":\"MW\",\"startTime\":\"08:00\",\"endTime\":\"09:15\"}"));
+        assertTrue(json.contains("\"meetingDays\":null,\"startTime\":null,\"endTime\":null}"));
+        assertTrue(json.endsWith("}\n]\n"));
+
+        bytes.reset();
+        new CatalogExporter(bytes, CatalogExporter.Format.JSON, false).close();
+        assertEquals("[]\n", bytes.toString("UTF-8"));
+    }
+
+    @Test
+    public void gzip_compressesAndDecompresses() throws Exception {
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+        CatalogExporter plainExporter = new CatalogExporter(plain, CatalogExporter.Format.CSV, false);
+        CatalogExporter zippedExporter = new CatalogExporter(zipped, CatalogExporter.Format.CSV, true);
+        for (int i = 0; i < 1000; i++) {
+            Offering offering = new Offering(10000 + i, 201731, JAVA, PAULDING, "TR", 570, 645);
+            plainExporter.writeOffering(offering);
+            zippedExporter.writeOffering(offering);
+        }
+        plainExporter.close();
+        zippedExporter.close();
+
+        assertTrue(zipped.size() < plain.size() / 4);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(zipped.toByteArray())), "UTF-8"));
+        StringBuilder unzipped = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null)
+            unzipped.append(line).append('\n');
+        assertEquals(plain.toString("UTF-8"), unzipped.toString());
+    }
+
+    @Test
+    public void export_buffersAConstantAmount() throws Exception {
+        CountingOutputStream out = new CountingOutputStream();
+        CatalogExporter exporter = new CatalogExporter(out, CatalogExporter.Format.CSV, false);
+        String row = "36018,201731,1,3,MW,08:00,09:15\n";
+        int rows = 1000000;
+        long maxBuffered = 0;
+        for (int i = 0; i < rows; i++) {
+            exporter.writeOffering(36018, 201731, 1, "CS", "A170", "Java Programming 1",
+                    3, "Paulding", "Michael", "mpaulding@occ.cccd.edu", "MW", 480, 555);
+            maxBuffered = Math.max(maxBuffered, (long) (i + 1) * row.length() - out.mCount);
+        }
+        exporter.close();
+
+        assertEquals((long) rows * row.length(), out.mCount);
+        assertTrue("buffered " + maxBuffered + " bytes",
+                maxBuffered <= 2 * CatalogExporter.BUFFER_SIZE + row.length());
+        assertTrue(out.mClosed);
+    }
+
+    /**
+     * CountingOutputStream discards what it is given and counts the bytes.
+     */
+    private static class CountingOutputStream extends OutputStream {
+        long mCount;
+        boolean mClosed;
+
+        @Override
+        public void write(int b) throws IOException {
+            mCount++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            mCount += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            mClosed = true;
+        }
+    }
+}
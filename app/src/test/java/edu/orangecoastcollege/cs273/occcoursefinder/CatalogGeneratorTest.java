@@ -0,0 +1,89 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for CatalogGenerator: the output is reproducible from its seed and every
+ * row parses with the same CatalogCsv code the imports use.
+ */
+public class CatalogGeneratorTest {
+
+    @Test
+    public void sameSeed_sameCatalog() throws Exception {
+        CatalogGenerator first = new CatalogGenerator(273, 50, 20, 1000, 6);
+        CatalogGenerator second = new CatalogGenerator(273, 50, 20, 1000, 6);
+        CatalogGenerator other = new CatalogGenerator(274, 50, 20, 1000, 6);
+
+        assertEquals(offerings(first), offerings(second));
+        assertEquals(courses(first), courses(second));
+        assertFalse(offerings(first).equals(offerings(other)));
+    }
+
+    @Test
+    public void rows_parseAndReferToGeneratedIds() throws Exception {
+        CatalogGenerator generator = new CatalogGenerator(42, 300, 80, 20000, 9);
+
+        Set<String> courseNumbers = new HashSet<>();
+        int courseRows = 0;
+        for (String line : lines(courses(generator))) {
+            Course course = CatalogCsv.parseCourse(line, null);
+            assertNotNull(line, course);
+            assertTrue(courseNumbers.add(course.getAlpha() + course.getNumber()));
+            courseRows++;
+        }
+        assertEquals(300, courseRows);
+
+        StringWriter instructors = new StringWriter();
+        generator.writeInstructors(instructors);
+        Set<String> emails = new HashSet<>();
+        for (String line : lines(instructors.toString()))
+            assertTrue(emails.add(CatalogCsv.parseInstructor(line, null).getEmail()));
+        assertEquals(80, emails.size());
+
+        Set<Integer> crns = new HashSet<>();
+        Set<Integer> semesters = new HashSet<>();
+        for (String line : lines(offerings(generator))) {
+            CatalogCsv.OfferingRow row = CatalogCsv.parseOffering(line, null);
+            assertNotNull(line, row);
+            assertTrue(crns.add(row.crn));
+            semesters.add(row.semesterCode);
+            assertTrue(row.courseId >= 1 && row.courseId <= 300);
+            assertTrue(row.instructorId >= 1 && row.instructorId <= 80);
+        }
+        assertEquals(20000, crns.size());
+        assertEquals(9, semesters.size());
+        assertTrue(semesters.contains(201731));
+    }
+
+    private static String courses(CatalogGenerator generator) throws IOException {
+        StringWriter out = new StringWriter();
+        generator.writeCourses(out);
+        return out.toString();
+    }
+
+    private static String offerings(CatalogGenerator generator) throws IOException {
+        StringWriter out = new StringWriter();
+        generator.writeOfferings(out);
+        return out.toString();
+    }
+
+    private static List<String> lines(String csv) throws IOException {
+        List<String> lines = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new StringReader(csv));
+        String line;
+        while ((line = reader.readLine()) != null)
+            lines.add(line);
+        return lines;
+    }
+}
@@ -0,0 +1,185 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for CatalogSnapshot: a round trip of the csv assets through a snapshot
+ * file, and detection of corrupted, truncated and foreign files.
+ */
+public class CatalogSnapshotTest {
+
+    private static final File ASSETS = new File("src/main/assets");
+
+    private List<Course> mCourses;
+    private List<Instructor> mInstructors;
+    private List<Offering> mOfferings;
+    private File mFile;
+
+    @Before
+    public void setUp() throws Exception {
+        mCourses = new ArrayList<>();
+        for (String line : readLines("courses.csv"))
+            mCourses.add(CatalogCsv.parseCourse(line, null));
+        mInstructors = new ArrayList<>();
+        for (String line : readLines("instructors.csv"))
+            mInstructors.add(CatalogCsv.parseInstructor(line, null));
+
+        HashMap<Long, Course> coursesById = new HashMap<>();
+        for (Course course : mCourses)
+            coursesById.put(course.getId(), course);
+        HashMap<Long, Instructor> instructorsById = new HashMap<>();
+        for (Instructor instructor : mInstructors)
+            instructorsById.put(instructor.getId(), instructor);
+        mOfferings = new ArrayList<>();
+        for (String line : readLines("offerings.csv")) {
+            CatalogCsv.OfferingRow row = CatalogCsv.parseOffering(line, null);
+            mOfferings.add(new Offering(row.crn, row.semesterCode, coursesById.get(row.courseId),
+                    instructorsById.get(row.instructorId), row.meetingDays, row.startTime,
+                    row.endTime));
+        }
+
+        mFile = File.createTempFile("catalog", ".snapshot");
+        CatalogSnapshot.write(mFile, mCourses, mInstructors, mOfferings);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mFile.delete();
+    }
+
+    @Test
+    public void roundTrip_matchesCsvAssets() throws Exception {
+        CatalogSnapshot snapshot = CatalogSnapshot.open(mFile);
+
+        assertEquals(15, snapshot.getCourseCount());
+        assertEquals(10, snapshot.getInstructorCount());
+        assertEquals(26, snapshot.getOfferingCount());
+
+        List<Course> courses = snapshot.getAllCourses();
+        for (int i = 0; i < mCourses.size(); i++)
+            assertEquals(mCourses.get(i).toString(), courses.get(i).toString());
+        List<Instructor> instructors = snapshot.getAllInstructors();
+        for (int i = 0; i < mInstructors.size(); i++)
+            assertEquals(mInstructors.get(i).toString(), instructors.get(i).toString());
+        List<Offering> offerings = snapshot.getAllOfferings();
+        for (int i = 0; i < mOfferings.size(); i++)
+            assertEquals(mOfferings.get(i).toString(), offerings.get(i).toString());
+    }
+
+    @Test
+    public void fieldAccess_sharesDecodedStrings() throws Exception {
+        CatalogSnapshot snapshot = CatalogSnapshot.open(mFile);
+
+        assertEquals(36018, snapshot.getOfferingCRN(0));
+        assertEquals(480, snapshot.getOfferingStartTime(0));
+        assertEquals("MW", snapshot.getOfferingMeetingDays(0));
+        assertSame(snapshot.getCourseAlpha(0), snapshot.getCourseAlpha(1));
+    }
+
+    @Test
+    public void searchOfferings_filtersRecords() throws Exception {
+        CatalogSnapshot snapshot = CatalogSnapshot.open(mFile);
+
+        assertEquals(26, snapshot.searchOfferings(" cs ", 201731, -1).size());
+        assertEquals(0, snapshot.searchOfferings("MATH", -1, -1).size());
+        List<Offering> paulding = snapshot.searchOfferings(null, -1, 3);
+        assertEquals(4, paulding.size());
+        for (Offering offering : paulding)
+            assertEquals("Paulding", offering.getInstructor().getLastName());
+        assertSame(paulding.get(0).getInstructor(), paulding.get(1).getInstructor());
+    }
+
+    @Test
+    public void offeringsWithMissingCourseOrInstructor_areKeptByGetAllOfferings()
+            throws Exception {
+        List<Offering> offerings = new ArrayList<>(mOfferings);
+        offerings.add(new Offering(99001, 201731, null, mInstructors.get(0), "MW", 480, 555));
+        offerings.add(new Offering(99002, 201731, mCourses.get(0), null, "TR", 480, 555));
+        CatalogSnapshot.write(mFile, mCourses, mInstructors, offerings);
+        CatalogSnapshot snapshot = CatalogSnapshot.open(mFile);
+
+        List<Offering> all = snapshot.getAllOfferings();
+        assertEquals(offerings.size(), all.size());
+        assertNull(all.get(all.size() - 2).getCourse());
+        assertNull(all.get(all.size() - 1).getInstructor());
+        // Searches join, like DBHelper.searchOfferings.
+        assertEquals(mOfferings.size(), snapshot.searchOfferings(null, -1, -1).size());
+    }
+
+    @Test
+    public void write_deletesTemporaryFileWhenItFails() throws Exception {
+        // Offerings that fail on their second pass, i.e. once the temporary file is open.
+        List<Offering> failing = new ArrayList<Offering>(mOfferings) {
+            private int mPasses;
+
+            @Override
+            public Iterator<Offering> iterator() {
+                if (++mPasses == 2)
+                    throw new IllegalStateException("read failed");
+                return super.iterator();
+            }
+        };
+        File file = new File(mFile.getPath() + ".new");
+        try {
+            CatalogSnapshot.write(file, mCourses, mInstructors, failing);
+            fail("The write should have failed");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+        assertFalse(file.exists());
+    }
+
+    @Test(expected = IOException.class)
+    public void open_detectsFlippedByte() throws Exception {
+        RandomAccessFile file = new RandomAccessFile(mFile, "rw");
+        file.seek(file.length() - 3);
+        int value = file.read();
+        file.seek(file.length() - 3);
+        file.write(value ^ 0x20);
+        file.close();
+
+        CatalogSnapshot.open(mFile);
+    }
+
+    @Test(expected = IOException.class)
+    public void open_detectsTruncatedFile() throws Exception {
+        RandomAccessFile file = new RandomAccessFile(mFile, "rw");
+        file.setLength(file.length() - 1);
+        file.close();
+
+        CatalogSnapshot.open(mFile);
+    }
+
+    @Test(expected = IOException.class)
+    public void open_rejectsOtherFiles() throws Exception {
+        CatalogSnapshot.open(new File(ASSETS, "courses.csv"));
+    }
+
+    private static List<String> readLines(String asset) throws IOException {
+        List<String> lines = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new FileReader(new File(ASSETS, asset)));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null)
+                lines.add(line);
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
+}
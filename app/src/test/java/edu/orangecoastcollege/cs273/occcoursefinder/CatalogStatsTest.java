@@ -0,0 +1,75 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the incremental bookkeeping of CatalogStats.
+ */
+public class CatalogStatsTest {
+
+    private CatalogStats mStats;
+
+    @Before
+    public void setUp() throws Exception {
+        mStats = new CatalogStats();
+        mStats.putCourse(1, "CS");
+        mStats.putCourse(2, "CS");
+        mStats.putCourse(3, "MATH");
+        mStats.addOffering(201731, 1, 10);
+        mStats.addOffering(201731, 1, 11);
+        mStats.addOffering(201731, 3, 10);
+        mStats.addOffering(201810, 2, 11);
+    }
+
+    @Test
+    public void counts_perFacet() throws Exception {
+        assertEquals(4, mStats.getOfferingCount());
+        assertEquals(2, mStats.getOfferingCountForCourse(1));
+        assertEquals(2, mStats.getOfferingCountForInstructor(10));
+        assertEquals(3, mStats.getOfferingCountForSemester(201731));
+        assertEquals(3, mStats.getOfferingCountForAlpha("CS"));
+        assertEquals(1, mStats.getOfferingCountForAlpha("MATH"));
+        assertEquals(0, mStats.getOfferingCountForAlpha("ENGL"));
+    }
+
+    @Test
+    public void removeOffering_decrementsEveryFacet() throws Exception {
+        mStats.removeOffering(201731, 1, 10);
+
+        assertEquals(3, mStats.getOfferingCount());
+        assertEquals(1, mStats.getOfferingCountForCourse(1));
+        assertEquals(1, mStats.getOfferingCountForInstructor(10));
+        assertEquals(2, mStats.getOfferingCountForSemester(201731));
+        assertEquals(2, mStats.getOfferingCountForAlpha("CS"));
+    }
+
+    @Test
+    public void putCourse_movesOfferingsToNewAlpha() throws Exception {
+        mStats.putCourse(1, "CIS");
+
+        assertEquals(1, mStats.getOfferingCountForAlpha("CS"));
+        assertEquals(2, mStats.getOfferingCountForAlpha("CIS"));
+    }
+
+    @Test
+    public void courseAddedAfterOfferings_countsTowardsAlpha() throws Exception {
+        mStats.addOffering(201731, 4, 12);
+        assertEquals(0, mStats.getOfferingCountForAlpha("ENGL"));
+
+        mStats.putCourse(4, "ENGL");
+        assertEquals(1, mStats.getOfferingCountForAlpha("ENGL"));
+    }
+
+    @Test
+    public void clearOfferings_keepsCourseAlphas() throws Exception {
+        mStats.clearOfferings();
+        assertEquals(0, mStats.getOfferingCount());
+        assertEquals(0, mStats.getOfferingCountForAlpha("CS"));
+
+        mStats.addOffering(201731, 3, 10);
+        assertEquals(1, mStats.getOfferingCountForAlpha("MATH"));
+    }
+}
@@ -0,0 +1,167 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests of CatalogValidator and ImportReport.
+ */
+public class CatalogValidatorTest {
+
+    private static final String COURSES = "1,CS,A170,Java Programming 1\n"
+            + "2,CS,A272,Java Programming 2\n";
+    private static final String INSTRUCTORS = "1,Paulding,Michael,mpaulding@occ.cccd.edu\n"
+            + "2,Gilbert,Stephen,sgilbert@occ.cccd.edu\n";
+
+    @Test
+    public void shippedAssets_areValid() throws Exception {
+        File assets = new File("src/main/assets");
+        CatalogValidator validator = new CatalogValidator(null);
+        validator.readCourses("courses.csv",
+                new BufferedReader(new FileReader(new File(assets, "courses.csv"))), null);
+        validator.readInstructors("instructors.csv",
+                new BufferedReader(new FileReader(new File(assets, "instructors.csv"))), null);
+        validator.readOfferings("offerings.csv",
+                new BufferedReader(new FileReader(new File(assets, "offerings.csv"))), null);
+
+        ImportReport report = validator.getReport();
+        assertTrue(report.toString(), report.isValid());
+        assertEquals(15, report.getCourseCount());
+        assertEquals(10, report.getInstructorCount());
+        assertEquals(26, report.getOfferingCount());
+    }
+
+    @Test
+    public void offerings_checkedAgainstIdsAndCrns() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        CatalogValidator validator = read(COURSES, INSTRUCTORS,
+                "36018,201731,1,2,MW,08:00,09:15\n"
+                        + "36019,201731,9,2\n"
+                        + "36020,201731,1,7\n"
+                        + "36018,201810,2,1\n"
+                        + "\n"
+                        + "not,a,row\n"
+                        + "36021,201810,2,1,TBA,TBA,TBA\n", sink);
+
+        ImportReport report = validator.getReport();
+        assertFalse(report.isValid());
+        assertEquals(4, report.getProblemCount());
+        assertEquals(1, report.getProblemCount(ImportReport.Kind.UNKNOWN_COURSE_ID));
+        assertEquals(1, report.getProblemCount(ImportReport.Kind.UNKNOWN_INSTRUCTOR_ID));
+        assertEquals(1, report.getProblemCount(ImportReport.Kind.DUPLICATE_CRN));
+        assertEquals(1, report.getProblemCount(ImportReport.Kind.MALFORMED_ROW));
+        assertEquals(2, report.getOfferingCount());
+
+        ImportReport.Problem problem = report.getProblems().get(0);
+        assertEquals(ImportReport.Kind.UNKNOWN_COURSE_ID, problem.kind);
+        assertEquals("offerings.csv", problem.file);
+        assertEquals(2, problem.line);
+        assertEquals("36019,201731,9,2", problem.row);
+        assertEquals(6, report.getProblems().get(3).line);
+
+        assertEquals(2, sink.mCourses.size());
+        assertEquals(2, sink.mInstructors.size());
+        assertEquals(2, sink.mCrns.size());
+        assertEquals(Integer.valueOf(36021), sink.mCrns.get(1));
+    }
+
+    @Test
+    public void duplicateIds_andRejectedRowsAreReported() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        sink.mRejectCourseId = 2;
+        CatalogValidator validator = read(COURSES + "1,MATH,A180,Calculus 1\n",
+                INSTRUCTORS + "2,Tran,Linh,ltran@occ.cccd.edu\n", "", sink);
+
+        ImportReport report = validator.getReport();
+        assertEquals(2, report.getProblemCount(ImportReport.Kind.DUPLICATE_COURSE_ID));
+        assertEquals(1, report.getProblemCount(ImportReport.Kind.DUPLICATE_INSTRUCTOR_ID));
+        assertEquals(1, report.getCourseCount());
+        assertEquals(3, report.getProblems().get(1).line);
+    }
+
+    @Test
+    public void nonPositiveIds_areMalformedAndNeverKnown() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        CatalogValidator validator = read(COURSES + "0,MATH,A180,Calculus 1\n",
+                INSTRUCTORS + "-1,Tran,Linh,ltran@occ.cccd.edu\n",
+                "36018,201731,0,1\n"
+                        + "36019,201731,1,-1\n", sink);
+
+        ImportReport report = validator.getReport();
+        assertEquals(2, report.getProblemCount(ImportReport.Kind.MALFORMED_ROW));
+        assertEquals(3, report.getProblems().get(0).line);
+        assertEquals("courses.csv", report.getProblems().get(0).file);
+        assertEquals("instructors.csv", report.getProblems().get(1).file);
+        // Offerings may not refer to the rows the database would have renumbered.
+        assertEquals(1, report.getProblemCount(ImportReport.Kind.UNKNOWN_COURSE_ID));
+        assertEquals(1, report.getProblemCount(ImportReport.Kind.UNKNOWN_INSTRUCTOR_ID));
+        assertEquals(2, sink.mCourses.size());
+        assertEquals(2, sink.mInstructors.size());
+        assertTrue(sink.mCrns.isEmpty());
+    }
+
+    @Test
+    public void report_keepsOnlyTheFirstProblemsInDetail() throws Exception {
+        StringBuilder offerings = new StringBuilder();
+        for (int i = 0; i < 1000; i++)
+            offerings.append(30000 + i).append(",201731,99,1\n");
+        ImportReport report = read(COURSES, INSTRUCTORS, offerings.toString(), null).getReport();
+
+        assertEquals(1000, report.getProblemCount());
+        assertEquals(ImportReport.MAX_PROBLEMS, report.getProblems().size());
+        assertTrue(report.toString().startsWith("Invalid import: 2 courses, 2 instructors, "
+                + "0 offerings, 1000 problems, UNKNOWN_COURSE_ID x1000"));
+        assertTrue(report.toString().endsWith("... 900 more"));
+    }
+
+    private static CatalogValidator read(String courses, String instructors, String offerings,
+                                         CatalogValidator.Sink sink) throws Exception {
+        CatalogValidator validator = new CatalogValidator(new StringPool());
+        validator.readCourses("courses.csv", reader(courses), sink);
+        validator.readInstructors("instructors.csv", reader(instructors), sink);
+        validator.readOfferings("offerings.csv", reader(offerings), sink);
+        return validator;
+    }
+
+    private static BufferedReader reader(String text) {
+        return new BufferedReader(new StringReader(text));
+    }
+
+    /**
+     * RecordingSink remembers what it was given and can refuse one course id, like a
+     * database that already holds it.
+     */
+    private static class RecordingSink implements CatalogValidator.Sink {
+        final List<Course> mCourses = new ArrayList<>();
+        final List<Instructor> mInstructors = new ArrayList<>();
+        final List<Integer> mCrns = new ArrayList<>();
+        long mRejectCourseId = -1;
+
+        @Override
+        public boolean course(Course course) {
+            if (course.getId() == mRejectCourseId)
+                return false;
+            mCourses.add(course);
+            return true;
+        }
+
+        @Override
+        public boolean instructor(Instructor instructor) {
+            mInstructors.add(instructor);
+            return true;
+        }
+
+        @Override
+        public void offering(CatalogCsv.OfferingRow row) {
+            mCrns.add(row.crn);
+        }
+    }
+}
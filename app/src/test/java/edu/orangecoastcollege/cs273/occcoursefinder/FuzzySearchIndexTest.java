@@ -0,0 +1,186 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests of FuzzySearchIndex, including a latency check on a generated
+ * 100,000 offering catalog.
+ */
+public class FuzzySearchIndexTest {
+
+    private InMemoryCatalogStore mStore;
+    private FuzzySearchIndex mIndex;
+
+    @Before
+    public void setUp() throws Exception {
+        mStore = new InMemoryCatalogStore();
+        mStore.addCourse(new Course(1, "CS", "A170", "Java Programming 1"));
+        mStore.addCourse(new Course(2, "CS", "A150", "C++ Programming 1"));
+        mStore.addCourse(new Course(3, "MATH", "A180", "Calculus 1"));
+        mStore.addCourse(new Course(4, "ENGL", "A100", "Freshman Composition"));
+        mStore.addInstructor(new Instructor(1, "Gilbert", "Stephen", "sgilbert@occ.cccd.edu"));
+        mStore.addInstructor(new Instructor(2, "Paulding", "Michael", "mpaulding@occ.cccd.edu"));
+        mStore.addOffering(36018, 201731, 1, 2, "MW", 480, 555);
+        mStore.addOffering(36019, 201731, 2, 2, "TR", 480, 555);
+        mStore.addOffering(36123, 201731, 3, 1, "TR", 570, 645);
+        mStore.addOffering(36200, 201731, 4, 1, "MW", 570, 645);
+        mIndex = FuzzySearchIndex.build(mStore);
+    }
+
+    @Test
+    public void distance_countsEditsAndSwaps() throws Exception {
+        assertEquals(0, FuzzySearchIndex.distance("java", "java", 2));
+        assertEquals(1, FuzzySearchIndex.distance("progamming", "programming", 2));
+        assertEquals(1, FuzzySearchIndex.distance("gilbret", "gilbert", 2));
+        assertEquals(1, FuzzySearchIndex.distance("calculsu", "calculus", 2));
+        assertEquals(2, FuzzySearchIndex.distance("calclsu", "calculus", 2));
+        // Cut off once the distance is certain to exceed the limit.
+        assertEquals(3, FuzzySearchIndex.distance("composition", "chemistry", 2));
+        assertEquals(2, FuzzySearchIndex.distance("abc", "abcdefg", 1));
+    }
+
+    @Test
+    public void search_toleratesTyposInTitles() throws Exception {
+        List<Offering> results = mIndex.search("Progamming", 10);
+        assertEquals(2, results.size());
+        assertEquals(36018, results.get(0).getCRN());
+        assertEquals(36019, results.get(1).getCRN());
+
+        results = mIndex.search("jaav progamming", 10);
+        assertEquals(36018, results.get(0).getCRN());
+
+        assertEquals(36123, mIndex.search("calculsu", 10).get(0).getCRN());
+    }
+
+    @Test
+    public void search_toleratesTyposInInstructorNames() throws Exception {
+        List<Offering> results = mIndex.search("Gilbret", 10);
+        assertEquals(2, results.size());
+        for (Offering offering : results)
+            assertEquals("Gilbert", offering.getInstructor().getLastName());
+
+        assertEquals(2, mIndex.search("micheal", 10).size());
+    }
+
+    @Test
+    public void search_toleratesSwappedLetters() throws Exception {
+        mStore.addInstructor(new Instructor(3, "Smith", "John", "jsmith@occ.cccd.edu"));
+        mStore.addInstructor(new Instructor(4, "Tran", "Linh", "ltran@occ.cccd.edu"));
+        mStore.addOffering(36300, 201731, 3, 3, "MW", 480, 555);
+        mStore.addOffering(36400, 201731, 4, 4, "TR", 480, 555);
+        FuzzySearchIndex index = FuzzySearchIndex.build(mStore);
+
+        // A swap costs one edit but destroys four trigrams, or all of a short word's.
+        assertEquals(1, FuzzySearchIndex.distance("smtih", "smith", 2));
+        assertEquals(1, FuzzySearchIndex.distance("tarn", "tran", 2));
+        assertEquals(36300, index.search("Smtih", 10).get(0).getCRN());
+        assertEquals(36400, index.search("Tarn", 10).get(0).getCRN());
+        assertEquals(36018, index.search("Jaav", 10).get(0).getCRN());
+        assertEquals(36123, index.search("Claculus", 10).get(0).getCRN());
+        assertEquals(2, index.search("Pualding", 10).size());
+    }
+
+    @Test
+    public void search_matchesPrefixes() throws Exception {
+        assertEquals(2, mIndex.search("prog", 10).size());
+        assertEquals(36200, mIndex.search("fresh", 10).get(0).getCRN());
+    }
+
+    @Test
+    public void search_ranksExactMatchesFirstAndBoundsResults() throws Exception {
+        mStore.addCourse(new Course(5, "CS", "A131", "Lava Programming"));
+        mStore.addOffering(30000, 201731, 5, 2, "F", 480, 650);
+        FuzzySearchIndex index = FuzzySearchIndex.build(mStore);
+
+        List<Offering> results = index.search("java", 10);
+        assertEquals(2, results.size());
+        assertEquals(36018, results.get(0).getCRN());
+        assertEquals(30000, results.get(1).getCRN());
+
+        assertEquals(1, index.search("programming", 1).size());
+        assertTrue(index.search("", 10).isEmpty());
+        assertTrue(index.search("zzzzzz", 10).isEmpty());
+    }
+
+    @Test
+    public void search_withUnboundedK_returnsEveryMatch() throws Exception {
+        List<Offering> results = mIndex.search("programming", Integer.MAX_VALUE);
+        assertEquals(2, results.size());
+        assertEquals(36018, results.get(0).getCRN());
+        assertTrue(mIndex.search("zzzzzz", Integer.MAX_VALUE).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void search_rejectsZeroK() throws Exception {
+        mIndex.search("java", 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void search_rejectsNegativeK() throws Exception {
+        mIndex.search("java", -1);
+    }
+
+    @Test
+    public void search_takesMillisecondsOnLargeCatalog() throws Exception {
+        CatalogGenerator generator = new CatalogGenerator(273, 2000, 600, 100000, 9);
+        StringPool strings = new StringPool();
+        InMemoryCatalogStore store = new InMemoryCatalogStore();
+
+        StringWriter courses = new StringWriter();
+        generator.writeCourses(courses);
+        for (String line : lines(courses)) {
+            Course course = CatalogCsv.parseCourse(line, strings);
+            if (course != null)
+                store.addCourse(course);
+        }
+        StringWriter instructors = new StringWriter();
+        generator.writeInstructors(instructors);
+        for (String line : lines(instructors)) {
+            Instructor instructor = CatalogCsv.parseInstructor(line, strings);
+            if (instructor != null)
+                store.addInstructor(instructor);
+        }
+        StringWriter offerings = new StringWriter();
+        generator.writeOfferings(offerings);
+        for (String line : lines(offerings)) {
+            CatalogCsv.OfferingRow row = CatalogCsv.parseOffering(line, strings);
+            if (row != null)
+                store.addOffering(row.crn, row.semesterCode, row.courseId, row.instructorId,
+                        row.meetingDays, row.startTime, row.endTime);
+        }
+        FuzzySearchIndex index = FuzzySearchIndex.build(store);
+
+        String[] queries = {"Progamming", "Gilbret", "statsitics", "micheal nguyen", "chem"};
+        for (int i = 0; i < 20; i++)
+            for (String query : queries)
+                index.search(query, 20);
+
+        int rounds = 20;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++)
+            for (String query : queries)
+                assertEquals(20, index.search(query, 20).size());
+        long micros = (System.nanoTime() - start) / 1000 / (rounds * queries.length);
+
+        assertTrue("search took " + micros + " us", micros < 20000);
+    }
+
+    private static String[] lines(StringWriter writer) throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader(writer.toString()));
+        ArrayList<String> lines = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null)
+            lines.add(line);
+        return lines.toArray(new String[lines.size()]);
+    }
+}
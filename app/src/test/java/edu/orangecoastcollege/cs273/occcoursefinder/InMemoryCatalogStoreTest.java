@@ -0,0 +1,108 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the CatalogStore conformance suite against InMemoryCatalogStore on the JVM, plus a
+ * lookup benchmark on a 100,000 offering catalog and a test of concurrent readers and a
+ * writer.
+ */
+public class InMemoryCatalogStoreTest extends CatalogStoreConformanceTest {
+
+    @Override
+    protected CatalogStore createStore() throws Exception {
+        return new InMemoryCatalogStore();
+    }
+
+    @Test
+    public void getOffering_takesMicroseconds() throws Exception {
+        InMemoryCatalogStore store = new InMemoryCatalogStore();
+        for (int id = 1; id <= 500; id++)
+            store.addCourse(new Course(id, "CS", "A" + (100 + id), "Course " + id));
+        for (int id = 1; id <= 200; id++)
+            store.addInstructor(new Instructor(id, "Last" + id, "First" + id, "i" + id + "@occ.cccd.edu"));
+        for (int i = 0; i < 100000; i++)
+            store.addOffering(10000 + i, 201731, 1 + i % 500, 1 + i % 200, "MW", 480, 555);
+
+        int lookups = 200000;
+        for (int i = 0; i < lookups; i++)
+            store.getOffering(10000 + (i * 7919) % 100000);
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (int i = 0; i < lookups; i++)
+            checksum += store.getOffering(10000 + (i * 7919) % 100000).getCRN();
+        long nanosPerLookup = (System.nanoTime() - start) / lookups;
+
+        assertTrue(checksum > 0);
+        assertTrue("getOffering took " + nanosPerLookup + " ns", nanosPerLookup < 20000);
+    }
+
+    @Test
+    public void concurrentReadersAndWriter_seeConsistentCatalog() throws Exception {
+        final InMemoryCatalogStore store = new InMemoryCatalogStore();
+        store.addCourse(new Course(1, "CS", "A170", "Java Programming 1"));
+        store.addCourse(new Course(2, "MATH", "A180", "Calculus 1"));
+        store.addInstructor(new Instructor(1, "Paulding", "Michael", "mpaulding@occ.cccd.edu"));
+        for (int i = 0; i < 1000; i++)
+            store.addOffering(10000 + i, 201731, 1 + i % 2, 1, "MW", 480, 555);
+
+        final int readers = 4;
+        final int rounds = 500;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(readers + 1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int r = 0; r < readers; r++)
+                results.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        start.await();
+                        int read = 0;
+                        for (int i = 0; i < rounds; i++) {
+                            List<Offering> cs = store.searchOfferings("CS", 201731, -1);
+                            // The writer only adds offerings, never fewer than the initial 500.
+                            assertTrue(cs.size() >= 500);
+                            for (Offering offering : cs)
+                                assertEquals("CS", offering.getCourse().getAlpha());
+                            assertEquals("Paulding", store.getInstructor(1).getLastName());
+                            assertNotNull(store.getOffering(10000 + i));
+                            read += cs.size();
+                        }
+                        return read;
+                    }
+                }));
+            results.add(executor.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    start.await();
+                    for (int i = 0; i < rounds; i++) {
+                        store.addOffering(20000 + i, 201731, 1 + i % 2, 1, "TR", 600, 675);
+                        store.updateCourse(new Course(2, "MATH", "A180", "Calculus " + i));
+                    }
+                    return rounds;
+                }
+            }));
+            start.countDown();
+            for (Future<Integer> result : results)
+                assertTrue(result.get(30, TimeUnit.SECONDS) > 0);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(750, store.searchOfferings("CS", 201731, -1).size());
+        assertEquals("Calculus " + (rounds - 1), store.getCourse(2).getTitle());
+        // Reads share the stored, pooled strings instead of interning them again.
+        assertSame(store.getCourse(1).getTitle(), store.getCourse(1).getTitle());
+    }
+}
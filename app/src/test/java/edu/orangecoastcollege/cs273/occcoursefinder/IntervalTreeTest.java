@@ -0,0 +1,63 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for IntervalTree.
+ */
+public class IntervalTreeTest {
+
+    @Test
+    public void overlaps_halfOpenIntervals() throws Exception {
+        IntervalTree tree = IntervalTree.EMPTY.insert(480, 555).insert(600, 675);
+
+        assertTrue(tree.overlaps(500, 510));
+        assertTrue(tree.overlaps(550, 610));
+        assertFalse(tree.overlaps(555, 600));
+        assertFalse(tree.overlaps(0, 480));
+        assertFalse(tree.overlaps(675, 700));
+        assertEquals(2, tree.size());
+    }
+
+    @Test
+    public void insert_leavesOriginalUnchanged() throws Exception {
+        IntervalTree before = IntervalTree.EMPTY.insert(100, 200);
+        IntervalTree after = before.insertAll(new int[]{300, 400, 500, 600});
+
+        assertFalse(before.overlaps(350, 360));
+        assertTrue(after.overlaps(350, 360));
+        assertEquals(1, before.size());
+        assertEquals(3, after.size());
+    }
+
+    @Test
+    public void overlaps_agreesWithLinearScan() throws Exception {
+        Random random = new Random(273);
+        int[] starts = new int[200];
+        int[] ends = new int[200];
+        IntervalTree tree = IntervalTree.EMPTY;
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = random.nextInt(10000);
+            ends[i] = starts[i] + 1 + random.nextInt(100);
+            tree = tree.insert(starts[i], ends[i]);
+        }
+
+        for (int q = 0; q < 2000; q++) {
+            int start = random.nextInt(10100);
+            int end = start + 1 + random.nextInt(50);
+            boolean expected = false;
+            for (int i = 0; i < starts.length && !expected; i++)
+                expected = starts[i] < end && start < ends[i];
+            assertEquals(expected, tree.overlaps(start, end));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void insert_rejectsEmptyInterval() throws Exception {
+        IntervalTree.EMPTY.insert(10, 10);
+    }
+}
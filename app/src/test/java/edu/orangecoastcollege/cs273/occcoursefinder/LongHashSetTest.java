@@ -0,0 +1,49 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests of LongHashSet.
+ */
+public class LongHashSetTest {
+
+    @Test
+    public void add_reportsNewValuesOnly() throws Exception {
+        LongHashSet set = new LongHashSet();
+        assertTrue(set.add(36018));
+        assertFalse(set.add(36018));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.add(-1));
+        assertEquals(3, set.size());
+
+        assertTrue(set.contains(36018));
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(-1));
+        assertFalse(set.contains(36019));
+
+        set.clear();
+        assertEquals(0, set.size());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(36018));
+    }
+
+    @Test
+    public void add_growsAndAgreesWithHashSet() throws Exception {
+        LongHashSet set = new LongHashSet();
+        HashSet<Long> expected = new HashSet<>();
+        Random random = new Random(273);
+        for (int i = 0; i < 100000; i++) {
+            long value = (i % 2 == 0) ? 10000 + i : random.nextInt(50000);
+            assertEquals(expected.add(value), set.add(value));
+        }
+        assertEquals(expected.size(), set.size());
+        for (long value = -10; value < 120000; value++)
+            assertEquals(expected.contains(value), set.contains(value));
+    }
+}
@@ -0,0 +1,49 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the meeting time helpers of Offering.
+ */
+public class OfferingTest {
+
+    @Test
+    public void parseTime_andFormatTime_roundTrip() throws Exception {
+        assertEquals(570, Offering.parseTime("09:30"));
+        assertEquals(1110, Offering.parseTime(" 18:30 "));
+        assertEquals(-1, Offering.parseTime("TBA"));
+        assertEquals("09:30", Offering.formatTime(570));
+        assertEquals("TBA", Offering.formatTime(-1));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void parseTime_rejectsMissingColon() throws Exception {
+        Offering.parseTime("0930");
+    }
+
+    @Test
+    public void parseTime_acceptsMidnightButNothingPastIt() throws Exception {
+        assertEquals(1440, Offering.parseTime("24:00"));
+        for (String time : new String[]{"24:01", "24:59", "25:00", "12:60", "-1:00"}) {
+            try {
+                Offering.parseTime(time);
+                fail(time + " should be rejected");
+            } catch (NumberFormatException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void getWeeklyIntervals_onePairPerDay() throws Exception {
+        Offering offering = new Offering(36018, 201731, null, null, "MW", 480, 555);
+        assertArrayEquals(new int[]{480, 555, 2 * 1440 + 480, 2 * 1440 + 555},
+                offering.getWeeklyIntervals());
+
+        Offering online = new Offering(36019, 201731, null, null);
+        assertFalse(online.hasMeetingTime());
+        assertEquals(0, online.getWeeklyIntervals().length);
+    }
+}
@@ -0,0 +1,66 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for QueryCache: key normalization, generation invalidation,
+ * size-based eviction and hit-ratio metrics.
+ */
+public class QueryCacheTest {
+
+    @Test
+    public void key_isNormalized() throws Exception {
+        assertEquals(QueryCache.key("CS", 201731, -1L), QueryCache.key("  cs ", 201731, -1L));
+        assertEquals("|-1|3", QueryCache.key(null, -1, 3L));
+    }
+
+    @Test
+    public void get_servesOnlyMatchingGeneration() throws Exception {
+        QueryCache<String> cache = new QueryCache<>(4);
+        cache.put("CS", 7, "result");
+
+        assertEquals("result", cache.get("CS", 7));
+        assertNull(cache.get("CS", 8));
+        // The stale entry was dropped, so the old generation no longer hits either.
+        assertNull(cache.get("CS", 7));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsed() throws Exception {
+        QueryCache<String> cache = new QueryCache<>(2);
+        cache.put("A", 0, "a");
+        cache.put("B", 0, "b");
+        cache.get("A", 0);
+        cache.put("C", 0, "c");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals("a", cache.get("A", 0));
+        assertNull(cache.get("B", 0));
+        assertEquals("c", cache.get("C", 0));
+    }
+
+    @Test
+    public void hitRatio_countsHitsAndMisses() throws Exception {
+        QueryCache<String> cache = new QueryCache<>(2);
+        assertEquals(0.0, cache.getHitRatio(), 0.0);
+
+        cache.get("A", 0);
+        cache.put("A", 0, "a");
+        cache.get("A", 0);
+        cache.get("A", 0);
+        cache.get("A", 0);
+
+        assertEquals(3, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.75, cache.getHitRatio(), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsNonPositiveSize() throws Exception {
+        new QueryCache<String>(0);
+    }
+}
@@ -0,0 +1,116 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for ScheduleBuilder.
+ */
+public class ScheduleBuilderTest {
+
+    private static final String[] DAY_PATTERNS = {"MW", "TR", "MWF", "F", "M", "W"};
+
+    @Test
+    public void findSchedules_skipsConflictingSections() throws Exception {
+        Course java = new Course(1, "CS", "A170", "Java Programming 1");
+        Course python = new Course(12, "CS", "A131", "Python Programming 1");
+        List<Offering> javaSections = Arrays.asList(
+                new Offering(1, 201731, java, null, "MW", 480, 555),
+                new Offering(2, 201731, java, null, "TR", 570, 645));
+        List<Offering> pythonSections = Arrays.asList(
+                new Offering(3, 201731, python, null, "MW", 500, 575),
+                new Offering(4, 201731, python, null, "M", 555, 630));
+
+        List<List<Offering>> schedules = new ScheduleBuilder(
+                Arrays.asList(javaSections, pythonSections)).findSchedules(10);
+
+        // 1+3 overlap on MW; every other pairing fits.
+        assertEquals(3, schedules.size());
+        for (List<Offering> schedule : schedules) {
+            assertEquals(2, schedule.size());
+            assertSame(java, schedule.get(0).getCourse());
+            assertSame(python, schedule.get(1).getCourse());
+            assertFalse(schedule.get(0).getCRN() == 1 && schedule.get(1).getCRN() == 3);
+        }
+    }
+
+    @Test
+    public void findSchedules_emptyWhenNothingFits() throws Exception {
+        Course a = new Course(1, "CS", "A170", "Java Programming 1");
+        Course b = new Course(2, "CS", "A272", "Java Programming 2");
+        List<List<Offering>> sections = new ArrayList<>();
+        sections.add(Arrays.asList(new Offering(1, 201731, a, null, "MW", 480, 555)));
+        sections.add(Arrays.asList(new Offering(2, 201731, b, null, "W", 540, 600)));
+
+        assertTrue(new ScheduleBuilder(sections).findSchedules(10).isEmpty());
+    }
+
+    @Test
+    public void findSchedules_tbaNeverConflicts() throws Exception {
+        Course a = new Course(1, "CS", "A170", "Java Programming 1");
+        Course b = new Course(2, "CS", "A272", "Java Programming 2");
+        List<List<Offering>> sections = new ArrayList<>();
+        sections.add(Arrays.asList(new Offering(1, 201731, a, null, "MW", 480, 555)));
+        sections.add(Arrays.asList(new Offering(2, 201731, b, null)));
+
+        assertEquals(1, new ScheduleBuilder(sections).findSchedules(10).size());
+    }
+
+    @Test
+    public void findSchedules_neverUsesASectionTwice() throws Exception {
+        Course a = new Course(1, "CS", "A170", "Java Programming 1");
+        // The same course twice: its sections are candidates for both positions.
+        List<Offering> online = Arrays.asList(new Offering(1, 201731, a, null),
+                new Offering(2, 201731, a, null));
+        List<List<Offering>> sections = new ArrayList<>();
+        sections.add(online);
+        sections.add(online);
+
+        List<List<Offering>> schedules = new ScheduleBuilder(sections).findSchedules(10);
+        assertEquals(2, schedules.size());
+        for (List<Offering> schedule : schedules)
+            assertTrue(schedule.get(0).getCRN() != schedule.get(1).getCRN());
+
+        sections.set(1, Arrays.asList(new Offering(1, 201731, a, null)));
+        sections.set(0, sections.get(1));
+        assertTrue(new ScheduleBuilder(sections).findSchedules(10).isEmpty());
+    }
+
+    @Test
+    public void findSchedules_sixCoursesOfFortySections_resolvesInMilliseconds() throws Exception {
+        Random random = new Random(273);
+        List<List<Offering>> sections = new ArrayList<>();
+        for (int c = 0; c < 6; c++) {
+            Course course = new Course(c, "CS", "A" + (100 + c), "Course " + c);
+            List<Offering> courseSections = new ArrayList<>();
+            for (int s = 0; s < 40; s++) {
+                int start = 7 * 60 + 30 * random.nextInt(26);
+                courseSections.add(new Offering(c * 100 + s, 201731, course, null,
+                        DAY_PATTERNS[random.nextInt(DAY_PATTERNS.length)], start, start + 75));
+            }
+            sections.add(courseSections);
+        }
+
+        // Warm up once so the timing does not include class loading.
+        new ScheduleBuilder(sections).findSchedules(50);
+        long startNanos = System.nanoTime();
+        List<List<Offering>> schedules = new ScheduleBuilder(sections).findSchedules(50);
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1000000;
+
+        assertEquals(50, schedules.size());
+        assertTrue("took " + elapsedMillis + " ms", elapsedMillis < 250);
+        for (List<Offering> schedule : schedules) {
+            IntervalTree busy = IntervalTree.EMPTY;
+            for (Offering offering : schedule) {
+                assertFalse(busy.overlapsAny(offering.getWeeklyIntervals()));
+                busy = busy.insertAll(offering.getWeeklyIntervals());
+            }
+        }
+    }
+}
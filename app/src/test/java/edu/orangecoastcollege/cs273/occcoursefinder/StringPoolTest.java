@@ -0,0 +1,136 @@
+package edu.orangecoastcollege.cs273.occcoursefinder;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for StringPool.
+ *
+ * The retention test hydrates a synthetic catalog of 100,000 offerings the same way
+ * DBHelper.getAllOfferings does (a new Course and Instructor per row, with fresh strings
+ * standing in for the ones a Cursor returns) and counts the distinct String instances and
+ * characters the list holds with and without the pool.  Counting instances is exact, where
+ * heap deltas around System.gc() depend on the collector and are flaky.
+ */
+public class StringPoolTest {
+
+    private static final int OFFERINGS = 100000;
+    private static final String[] ALPHAS = {"CS", "MATH", "ENGL", "BIOL", "CHEM", "HIST"};
+    private static final int COURSES = 600;
+    private static final int INSTRUCTORS = 400;
+
+    @Test
+    public void intern_returnsFirstEqualInstance() throws Exception {
+        StringPool pool = new StringPool();
+        String first = new String("CS");
+        String second = new String("CS");
+
+        assertSame(first, pool.intern(first));
+        assertSame(first, pool.intern(second));
+        assertNull(pool.intern(null));
+        assertEquals(1, pool.size());
+        assertEquals(2, pool.getRequestCount());
+        assertEquals(1, pool.getHitCount());
+    }
+
+    @Test
+    public void pooledInstructors_shareTheirEmail() throws Exception {
+        StringPool pool = new StringPool();
+        Instructor a = new Instructor(1, copy(pool, "Paulding"), copy(pool, "Michael"),
+                copy(pool, "mpaulding@occ.cccd.edu"));
+        Instructor b = new Instructor(1, copy(pool, "Paulding"), copy(pool, "Michael"),
+                copy(pool, "mpaulding@occ.cccd.edu"));
+
+        assertEquals("mpaulding@occ.cccd.edu", a.getEmail());
+        assertSame(a.getEmail(), b.getEmail());
+        assertSame(a.getEmail(), a.getEmail());
+        assertSame(a.getLastName(), b.getLastName());
+    }
+
+    @Test
+    public void hydrating100kOfferings_retainsFarFewerStrings() throws Exception {
+        List<Offering> unpooled = hydrate(null);
+        StringPool pool = new StringPool();
+        List<Offering> pooled = hydrate(pool);
+        assertEquals(OFFERINGS, unpooled.size());
+        assertEquals(OFFERINGS, pooled.size());
+
+        // Unpooled, each row holds six strings of its own; pooled, every row shares the
+        // instances of the pool, so only the distinct values are retained.
+        IdentityHashMap<String, Boolean> unpooledStrings = strings(unpooled);
+        IdentityHashMap<String, Boolean> pooledStrings = strings(pooled);
+        assertEquals(6 * OFFERINGS, unpooledStrings.size());
+        assertEquals(pool.size(), pooledStrings.size());
+        assertTrue(pool.size() <= ALPHAS.length + 2 * COURSES + 3 * INSTRUCTORS);
+        assertTrue(characters(pooledStrings) * 50 < characters(unpooledStrings));
+        assertEquals(pool.getRequestCount() - pool.size(), pool.getHitCount());
+    }
+
+    @Test
+    public void clear_forgetsEveryString() throws Exception {
+        StringPool pool = new StringPool();
+        String first = pool.intern(new String("CS"));
+        pool.intern(new String("CS"));
+        pool.clear();
+
+        assertEquals(0, pool.size());
+        assertEquals(0, pool.getRequestCount());
+        String second = new String("CS");
+        assertSame(second, pool.intern(second));
+        assertTrue(first != second);
+    }
+
+    /**
+     * Collects the distinct String instances held by the offerings, by identity.
+     */
+    private static IdentityHashMap<String, Boolean> strings(List<Offering> offerings) {
+        IdentityHashMap<String, Boolean> strings = new IdentityHashMap<>();
+        for (Offering offering : offerings) {
+            Course course = offering.getCourse();
+            Instructor instructor = offering.getInstructor();
+            for (String value : new String[]{course.getAlpha(), course.getNumber(),
+                    course.getTitle(), instructor.getLastName(), instructor.getFirstName(),
+                    instructor.getEmail()})
+                strings.put(value, Boolean.TRUE);
+        }
+        return strings;
+    }
+
+    private static long characters(IdentityHashMap<String, Boolean> strings) {
+        long characters = 0;
+        for (String value : strings.keySet())
+            characters += value.length();
+        return characters;
+    }
+
+    /**
+     * Builds the synthetic catalog, copying every string as a Cursor would.
+     */
+    private static List<Offering> hydrate(StringPool pool) {
+        List<Offering> offerings = new ArrayList<>(OFFERINGS);
+        for (int i = 0; i < OFFERINGS; i++) {
+            int courseId = i % COURSES;
+            int instructorId = (i * 7) % INSTRUCTORS;
+            Course course = new Course(courseId,
+                    copy(pool, ALPHAS[courseId % ALPHAS.length]),
+                    copy(pool, "A" + (100 + courseId)),
+                    copy(pool, "Course Title Number " + courseId));
+            Instructor instructor = new Instructor(instructorId,
+                    copy(pool, "Last" + instructorId),
+                    copy(pool, "First" + instructorId),
+                    copy(pool, "user" + instructorId + "@occ.cccd.edu"));
+            offerings.add(new Offering(30000 + i, 201731, course, instructor));
+        }
+        return offerings;
+    }
+
+    private static String copy(StringPool pool, String value) {
+        String fresh = new String(value);
+        return (pool == null) ? fresh : pool.intern(fresh);
+    }
+}